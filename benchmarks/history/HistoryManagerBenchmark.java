@@ -0,0 +1,76 @@
+package history;
+
+import org.openjdk.jmh.annotations.*;
+import tasks.Task;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoryManagerBenchmark {
+
+    public enum Implementation {
+        SYNCHRONIZED,
+        SYNCHRONIZED_ARRAY,
+        CONCURRENT
+    }
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    @Param({"SYNCHRONIZED", "SYNCHRONIZED_ARRAY", "CONCURRENT"})
+    private Implementation implementation;
+
+    private HistoryManager historyManager;
+    private Task[] tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (implementation) {
+            case CONCURRENT:
+                historyManager = new ConcurrentHistoryManager();
+                break;
+            case SYNCHRONIZED_ARRAY:
+                historyManager = new SynchronizedHistoryManager(new ArrayHistoryManager());
+                break;
+            default:
+                historyManager = new SynchronizedHistoryManager(new InMemoryHistoryManager());
+        }
+
+        tasks = new Task[size];
+        for (int i = 0; i < size; i++) {
+            tasks[i] = new Task(i + 1, "task " + i, "benchmark task");
+            historyManager.add(tasks[i]);
+        }
+    }
+
+    private Task randomTask() {
+        return tasks[ThreadLocalRandom.current().nextInt(tasks.length)];
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void add() {
+        historyManager.add(randomTask());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public void mixedAdd() {
+        historyManager.add(randomTask());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public List<Task> mixedGetHistory() {
+        return historyManager.getHistory();
+    }
+}
@@ -0,0 +1,64 @@
+package tasks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SnapshotLoadBenchmark {
+
+    private static final Instant BASE = Instant.parse("2022-01-01T00:00:00Z");
+
+    @Param({"10000", "200000"})
+    private int size;
+
+    @Param({"CSV", "BINARY"})
+    private SnapshotFormat format;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = File.createTempFile("benchmark", "snapshot");
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, format, size, 0, 1);
+
+        int epicId = manager.createEpic(new Epic("epic", "benchmark epic"));
+        for (int i = 0; i < size; i++) {
+            if (i % 4 == 0) {
+                manager.createSubtask(new Subtask(0, "subtask " + i, "benchmark subtask", Status.NEW,
+                        BASE.plus(Duration.ofHours(i)), Duration.ofMinutes(30), epicId));
+            } else {
+                manager.createTask(new Task("task " + i, "benchmark task",
+                        BASE.plus(Duration.ofHours(i)), Duration.ofMinutes(30)));
+            }
+        }
+
+        manager.updateEpic(new Epic(epicId, "epic", "snapshot"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        new File(file.getPath() + ".journal").delete();
+        new File(file.getPath() + ".history").delete();
+        file.delete();
+    }
+
+    @Benchmark
+    public FileBackedTaskManager loadFromFile() {
+        return FileBackedTaskManager.loadFromFile(file);
+    }
+
+    @Benchmark
+    public FileBackedTaskManager loadFromFileParallel() {
+        return FileBackedTaskManager.loadFromFileParallel(file);
+    }
+}
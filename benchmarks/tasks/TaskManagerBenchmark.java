@@ -0,0 +1,181 @@
+package tasks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import utils.Manager;
+import utils.exceptions.TaskHasInteractionException;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskManagerBenchmark {
+
+    private static final Instant BASE = Instant.parse("2022-01-01T00:00:00Z");
+    private static final Duration SLOT = Duration.ofMinutes(60);
+    private static final Duration DURATION = Duration.ofMinutes(30);
+
+    public enum Implementation {
+        IN_MEMORY,
+        FILE_BACKED
+    }
+
+    public enum Mix {
+        SCHEDULED,
+        UNSCHEDULED,
+        MIXED
+    }
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    @Param({"IN_MEMORY", "FILE_BACKED"})
+    private Implementation implementation;
+
+    @Param({"SCHEDULED", "UNSCHEDULED", "MIXED"})
+    private Mix mix;
+
+    private InMemoryTaskManager taskManager;
+    private File file;
+    private int[] taskIds;
+    private int[] subtaskIds;
+    private int epicId;
+    private long nextSlot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (implementation == Implementation.FILE_BACKED) {
+            file = File.createTempFile("benchmark", "fileBackedManager");
+            taskManager = Manager.getFileTaskManager(file);
+        } else {
+            taskManager = Manager.getDefault();
+        }
+
+        taskIds = new int[size];
+        for (int i = 0; i < size; i++) {
+            taskIds[i] = taskManager.createTask(newTask(i));
+        }
+
+        epicId = taskManager.createEpic(new Epic("epic", "benchmark epic"));
+        subtaskIds = new int[Math.min(size, 1000)];
+        for (int i = 0; i < subtaskIds.length; i++) {
+            Subtask subtask = new Subtask(0, "subtask " + i, "benchmark subtask", Status.NEW,
+                    null, null, epicId);
+            subtaskIds[i] = taskManager.createSubtask(subtask);
+        }
+
+        for (int i = 0; i < Math.min(size, 1000); i++) {
+            taskManager.getTask(taskIds[i]);
+        }
+        nextSlot = size;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (file != null) {
+            new File(file.getPath() + ".journal").delete();
+            new File(file.getPath() + ".history").delete();
+            file.delete();
+        }
+    }
+
+    private boolean isScheduled(long i) {
+        switch (mix) {
+            case SCHEDULED:
+                return true;
+            case UNSCHEDULED:
+                return false;
+            default:
+                return i % 2 == 0;
+        }
+    }
+
+    private Task newTask(long i) {
+        if (isScheduled(i)) {
+            return new Task("task " + i, "benchmark task", BASE.plus(SLOT.multipliedBy(i)), DURATION);
+        }
+        return new Task("task " + i, "benchmark task");
+    }
+
+    private int randomTaskId() {
+        return taskIds[ThreadLocalRandom.current().nextInt(taskIds.length)];
+    }
+
+    @Benchmark
+    public void createAndRemoveTask() {
+        int id = taskManager.createTask(newTask(nextSlot++));
+        taskManager.removeTask(id);
+    }
+
+    @Benchmark
+    public boolean checkTaskTimeConflict() {
+        Task task = new Task("conflict", "benchmark task",
+                BASE.plus(SLOT.multipliedBy(ThreadLocalRandom.current().nextInt(size))), SLOT);
+        try {
+            taskManager.removeTask(taskManager.createTask(task));
+            return false;
+        } catch (TaskHasInteractionException e) {
+            return true;
+        }
+    }
+
+    @Benchmark
+    public void updateTask() {
+        int id = randomTaskId();
+        Status status = ThreadLocalRandom.current().nextBoolean() ? Status.IN_PROGRESS : Status.DONE;
+        taskManager.updateTask(new Task(id, null, null, status));
+    }
+
+    @Benchmark
+    public void updateSubtask() {
+        int id = subtaskIds[ThreadLocalRandom.current().nextInt(subtaskIds.length)];
+        Status status = ThreadLocalRandom.current().nextBoolean() ? Status.IN_PROGRESS : Status.DONE;
+        taskManager.updateSubtask(new Subtask(id, null, null, status, epicId));
+    }
+
+    @Benchmark
+    public Task getTask() {
+        return taskManager.getTask(randomTaskId());
+    }
+
+    @Benchmark
+    public void getTasks(Blackhole bh) {
+        bh.consume(taskManager.getTasks());
+    }
+
+    @Benchmark
+    public void getPrioritizedTasks(Blackhole bh) {
+        bh.consume(taskManager.getPrioritizedTasks());
+    }
+
+    @Benchmark
+    public void getHistory(Blackhole bh) {
+        bh.consume(taskManager.getHistory());
+    }
+
+    @Benchmark
+    public void getTaskFromEpic(Blackhole bh) {
+        bh.consume(taskManager.getTaskFromEpic(epicId));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public FileBackedTaskManager loadFromFile() {
+        if (file == null) {
+            return null;
+        }
+        return FileBackedTaskManager.loadFromFile(file);
+    }
+}
@@ -0,0 +1,169 @@
+package history;
+
+import tasks.Task;
+import utils.collections.IntIntHashMap;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+public class ArrayHistoryManager implements HistoryManager {
+
+    private static final int NIL = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final IntIntHashMap slots = new IntIntHashMap();
+    private final int maxSize;
+    private Task[] tasks = new Task[INITIAL_CAPACITY];
+    private int[] prev = new int[INITIAL_CAPACITY];
+    private int[] next = new int[INITIAL_CAPACITY];
+    private int first = NIL;
+    private int last = NIL;
+    private int free = NIL;
+    private int used;
+    private int size;
+
+    public ArrayHistoryManager() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public ArrayHistoryManager(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Размер истории должен быть положительным: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    private class HistoryView extends AbstractCollection<Task> {
+        @Override
+        public Iterator<Task> iterator() {
+            return new Iterator<>() {
+                private int slot = first;
+
+                @Override
+                public boolean hasNext() {
+                    return slot != NIL;
+                }
+
+                @Override
+                public Task next() {
+                    if (slot == NIL) {
+                        throw new NoSuchElementException();
+                    }
+                    Task task = tasks[slot];
+                    slot = ArrayHistoryManager.this.next[slot];
+                    return task;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private final HistoryView view = new HistoryView();
+
+    @Override
+    public void add(Task task) {
+        int taskId = task.getId();
+        int slot = slots.get(taskId, NIL);
+        if (slot != NIL) {
+            unlink(slot);
+            linkLast(slot);
+            return;
+        }
+
+        if (size == maxSize) {
+            int eldest = first;
+            slots.remove(tasks[eldest].getId(), NIL);
+            unlink(eldest);
+            release(eldest);
+            size--;
+        }
+
+        slot = acquire();
+        tasks[slot] = task;
+        slots.put(taskId, slot);
+        linkLast(slot);
+        size++;
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        List<Task> history = new ArrayList<>(size);
+        for (int slot = first; slot != NIL; slot = next[slot]) {
+            history.add(tasks[slot]);
+        }
+        return history;
+    }
+
+    @Override
+    public Collection<Task> getHistoryView() {
+        return view;
+    }
+
+    @Override
+    public void remove(int id) {
+        int slot = slots.remove(id, NIL);
+        if (slot == NIL) {
+            return;
+        }
+        unlink(slot);
+        release(slot);
+        size--;
+    }
+
+    private void linkLast(int slot) {
+        prev[slot] = last;
+        next[slot] = NIL;
+        if (last == NIL) {
+            first = slot;
+        } else {
+            next[last] = slot;
+        }
+        last = slot;
+    }
+
+    private void unlink(int slot) {
+        int p = prev[slot];
+        int n = next[slot];
+
+        if (p != NIL) {
+            next[p] = n;
+        } else {
+            first = n;
+        }
+        if (n != NIL) {
+            prev[n] = p;
+        } else {
+            last = p;
+        }
+    }
+
+    private int acquire() {
+        if (free != NIL) {
+            int slot = free;
+            free = next[slot];
+            return slot;
+        }
+        if (used == tasks.length) {
+            int capacity = tasks.length * 2;
+            tasks = Arrays.copyOf(tasks, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        return used++;
+    }
+
+    private void release(int slot) {
+        tasks[slot] = null;
+        next[slot] = free;
+        free = slot;
+    }
+}
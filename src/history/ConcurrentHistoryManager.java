@@ -0,0 +1,132 @@
+package history;
+
+import tasks.Task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConcurrentHistoryManager implements HistoryManager {
+
+    private static final int OPTIMISTIC_READ_ATTEMPTS = 3;
+
+    private final ConcurrentHashMap<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Task> order = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong startedWrites = new AtomicLong();
+    private final AtomicLong finishedWrites = new AtomicLong();
+    private final int maxSize;
+
+    private static final class Entry {
+        final long seq;
+
+        Entry(long seq) {
+            this.seq = seq;
+        }
+    }
+
+    public ConcurrentHistoryManager() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public ConcurrentHistoryManager(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Размер истории должен быть положительным: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void add(Task task) {
+        startedWrites.incrementAndGet();
+        try {
+            boolean[] inserted = new boolean[1];
+            entries.compute(task.getId(), (id, old) -> {
+                long seq = sequence.incrementAndGet();
+                order.put(seq, task);
+                if (old != null) {
+                    order.remove(old.seq);
+                } else {
+                    inserted[0] = true;
+                }
+                return new Entry(seq);
+            });
+
+            if (inserted[0]) {
+                evictOverflow();
+            }
+        } finally {
+            finishedWrites.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void remove(int id) {
+        startedWrites.incrementAndGet();
+        try {
+            entries.computeIfPresent(id, (key, entry) -> {
+                order.remove(entry.seq);
+                return null;
+            });
+        } finally {
+            finishedWrites.incrementAndGet();
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        for (int attempt = 0; attempt < OPTIMISTIC_READ_ATTEMPTS; attempt++) {
+            long finished = finishedWrites.get();
+            long started = startedWrites.get();
+            if (started != finished) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            List<Task> history = new ArrayList<>(order.values());
+            if (startedWrites.get() == started) {
+                return history;
+            }
+        }
+        return currentEntries();
+    }
+
+    @Override
+    public Collection<Task> getHistoryView() {
+        return Collections.unmodifiableList(getHistory());
+    }
+
+    private List<Task> currentEntries() {
+        // writers keep racing: take the entries stamped up to now that are still the live position of their task,
+        // so the copy has no duplicates or tasks added after the read began, without ever waiting on a writer
+        List<Task> history = new ArrayList<>();
+        for (Map.Entry<Long, Task> stamped : order.headMap(sequence.get(), true).entrySet()) {
+            Entry current = entries.get(stamped.getValue().getId());
+            if (current != null && current.seq == stamped.getKey()) {
+                history.add(stamped.getValue());
+            }
+        }
+        return history;
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<Long, Task>> eldest = order.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            Map.Entry<Long, Task> candidate = eldest.next();
+            // a stale candidate belongs to a concurrent re-add, so move on to the next one instead of waiting
+            entries.computeIfPresent(candidate.getValue().getId(), (id, entry) -> {
+                if (entry.seq != candidate.getKey()) {
+                    return entry;
+                }
+                order.remove(entry.seq);
+                return null;
+            });
+        }
+    }
+}
@@ -2,6 +2,7 @@ package history;
 
 import tasks.Task;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface HistoryManager {
@@ -11,4 +12,6 @@ public interface HistoryManager {
     void remove(int id);
 
     List<Task> getHistory();
+
+    Collection<Task> getHistoryView();
 }
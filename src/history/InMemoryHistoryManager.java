@@ -2,16 +2,32 @@ package history;
 
 import tasks.Task;
 
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.HashMap;
 import java.util.ArrayList;
+import java.util.NoSuchElementException;
 
 public class InMemoryHistoryManager implements HistoryManager {
 
     private final HashMap<Integer, Node> historyMap = new HashMap<>();
+    private final int maxSize;
     private Node first;
     private Node last;
 
+    public InMemoryHistoryManager() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public InMemoryHistoryManager(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Размер истории должен быть положительным: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
     private class Node {
         Node prev;
         Node next;
@@ -24,6 +40,37 @@ public class InMemoryHistoryManager implements HistoryManager {
         }
     }
 
+    private class HistoryView extends AbstractCollection<Task> {
+        @Override
+        public Iterator<Task> iterator() {
+            return new Iterator<>() {
+                private Node next = first;
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public Task next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    Task task = next.data;
+                    next = next.next;
+                    return task;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return historyMap.size();
+        }
+    }
+
+    private final HistoryView view = new HistoryView();
+
     private Node linkLast(Node newNode) {
         Node l = last;
         last = newNode;
@@ -80,6 +127,12 @@ public class InMemoryHistoryManager implements HistoryManager {
         } else {
             Node newNode = new Node(null, task, null);
             historyMap.put(taskId, linkLast(newNode));
+
+            if (historyMap.size() > maxSize) {
+                Node eldest = first;
+                removeNode(eldest);
+                historyMap.remove(eldest.data.getId());
+            }
         }
     }
 
@@ -88,6 +141,11 @@ public class InMemoryHistoryManager implements HistoryManager {
         return getTasks();
     }
 
+    @Override
+    public Collection<Task> getHistoryView() {
+        return view;
+    }
+
     @Override
     public void remove(int id) {
         Node n = historyMap.get(id);
@@ -0,0 +1,36 @@
+package history;
+
+import tasks.Task;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+public class SynchronizedHistoryManager implements HistoryManager {
+
+    private final HistoryManager historyManager;
+
+    public SynchronizedHistoryManager(HistoryManager historyManager) {
+        this.historyManager = historyManager;
+    }
+
+    @Override
+    public synchronized void add(Task task) {
+        historyManager.add(task);
+    }
+
+    @Override
+    public synchronized void remove(int id) {
+        historyManager.remove(id);
+    }
+
+    @Override
+    public synchronized List<Task> getHistory() {
+        return historyManager.getHistory();
+    }
+
+    @Override
+    public synchronized Collection<Task> getHistoryView() {
+        return Collections.unmodifiableList(historyManager.getHistory());
+    }
+}
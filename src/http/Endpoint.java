@@ -6,5 +6,6 @@ public enum Endpoint {
     POST_TASKS,
     DELETE_TASK,
     GET_EPIC_SUBTASKS,
+    GET_FREE_SLOT,
     UNKNOWN
 }
@@ -6,28 +6,64 @@ import tasks.*;
 
 import http.handlers.*;
 
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
 import utils.adapters.DurationAdapter;
 import utils.adapters.InstantAdapter;
+import utils.adapters.IntArraySetAdapter;
+import utils.collections.IntArraySet;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 
 public class HttpTaskServer<T extends TaskManager> {
     private static final int PORT = 8080;
+    private static final int BACKLOG = 0;
+    private static final int EVENT_LOG_CAPACITY = 10_000;
+    public static final int MAX_EVENT_POLLERS = 64;
+    private static final ThreadLocal<Boolean> OVERLOADED = new ThreadLocal<>();
     private HttpServer httpServer;
     private final T taskManager;
+    private final int port;
+    private final int backlog;
+    private final Executor executor;
     private Gson gson;
+    private TaskEventLog eventLog;
+    private ExecutorService pollExecutor;
 
     public HttpTaskServer(T taskManager) {
+        this(taskManager, PORT, BACKLOG, null);
+    }
+
+    public HttpTaskServer(T taskManager, int port, int backlog, Executor executor) {
+        // handlers iterate live collection views, which only ConcurrentTaskManager guards against writers
+        if (executor != null && !(taskManager instanceof ConcurrentTaskManager)) {
+            throw new IllegalArgumentException("Многопоточная обработка запросов требует ConcurrentTaskManager, а не "
+                    + taskManager.getClass().getSimpleName());
+        }
         this.taskManager = taskManager;
+        this.port = port;
+        this.backlog = backlog;
+        this.executor = executor;
 
         this.gson = new GsonBuilder()
                 .registerTypeAdapter(Duration.class, new DurationAdapter())
                 .registerTypeAdapter(Instant.class, new InstantAdapter())
+                .registerTypeAdapter(IntArraySet.class, new IntArraySetAdapter())
                 .create();
     }
 
@@ -36,20 +72,89 @@ public class HttpTaskServer<T extends TaskManager> {
     }
 
     public void start() throws IOException {
-        httpServer = HttpServer.create(new InetSocketAddress(PORT), 0);
-
-        httpServer.createContext("/tasks", new HttpTasksHandler<>(taskManager, gson));
-        httpServer.createContext("/subtasks", new HttpSubtasksHandler<>(taskManager, gson));
-        httpServer.createContext("/epics", new HttpEpicsHandler<>(taskManager, gson));
-        httpServer.createContext("/history", new HttpHistoryHandler<>(taskManager, gson));
-        httpServer.createContext("/prioritized", new HttpPrioritizedTasksHandler<>(taskManager, gson));
+        httpServer = HttpServer.create(new InetSocketAddress(port), backlog);
+        httpServer.setExecutor(executor);
+
+        createContext("/tasks", new HttpTasksHandler<>(taskManager, gson));
+        createContext("/subtasks", new HttpSubtasksHandler<>(taskManager, gson));
+        createContext("/epics", new HttpEpicsHandler<>(taskManager, gson));
+        createContext("/history", new HttpHistoryHandler<>(taskManager, gson));
+        createContext("/prioritized", new HttpPrioritizedTasksHandler<>(taskManager, gson));
+        createContext("/batch", new HttpBatchHandler<>(taskManager, gson));
+        createContext("/search", new HttpSearchHandler<>(taskManager, gson));
+
+        eventLog = new TaskEventLog(EVENT_LOG_CAPACITY);
+        // every waiting poll holds a thread, so their number is capped and extra polls get 503
+        pollExecutor = new ThreadPoolExecutor(0, MAX_EVENT_POLLERS, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), r -> {
+                    Thread thread = new Thread(r, "events-poll");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        taskManager.addEventListener(eventLog);
+        createContext("/events", new HttpEventsHandler<>(taskManager, gson, eventLog, pollExecutor));
 
         httpServer.start();
     }
 
+    private void createContext(String path, HttpHandler handler) {
+        httpServer.createContext(path, handler).getFilters().add(new OverloadFilter());
+    }
 
     public void stop() {
+        if (httpServer == null) {
+            return;
+        }
+        taskManager.removeEventListener(eventLog);
+        pollExecutor.shutdownNow();
         httpServer.stop(1);
+        httpServer = null;
+    }
+
+    public static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // virtual threads are not available before Java 21
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    public static ExecutorService boundedExecutor(int threads, int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), (exchange, pool) -> {
+                    // the rejected exchange runs on the dispatcher only long enough for OverloadFilter to answer 503
+                    OVERLOADED.set(Boolean.TRUE);
+                    try {
+                        exchange.run();
+                    } finally {
+                        OVERLOADED.remove();
+                    }
+                });
+    }
+
+    private static class OverloadFilter extends Filter {
+        private static final byte[] RESPONSE = "Сервер перегружен, повторите запрос позже"
+                .getBytes(StandardCharsets.UTF_8);
+
+        @Override
+        public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+            if (OVERLOADED.get() == null) {
+                chain.doFilter(exchange);
+                return;
+            }
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            try (OutputStream os = exchange.getResponseBody()) {
+                exchange.sendResponseHeaders(503, RESPONSE.length);
+                os.write(RESPONSE);
+            }
+            exchange.close();
+        }
+
+        @Override
+        public String description() {
+            return "Отклоняет запросы, не поместившиеся в очередь исполнителя";
+        }
     }
 
     public static void main(String[] args) {
@@ -3,39 +3,61 @@ package http.handlers;
 import utils.exceptions.TaskNotFoundException;
 import utils.exceptions.TaskHasInteractionException;
 
+import tasks.Status;
 import tasks.Task;
 import tasks.TaskManager;
 
 import http.Endpoint;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.URLDecoder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.IntConsumer;
 import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 import java.util.function.ToIntFunction;
 
 abstract class BaseHttpTaskHandler<M extends TaskManager, T extends Task> implements HttpHandler {
 
     private static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
+    private static final int SMALL_RESPONSE_SIZE = 16 * 1024;
+    protected static final int DEFAULT_PAGE_SIZE = 100;
+    private static final String ETAG_EPOCH = Long.toString(System.currentTimeMillis(), 36);
     private final String typeTask;
     private final Class<T> typeClass;
+    private final String etagPrefix;
     protected Gson gson;
     protected M taskManager;
 
+    protected interface StatusPageFunction<T> {
+        List<T> apply(Status status, int afterId, int limit);
+    }
+
     protected BaseHttpTaskHandler(M taskManager, String typeTask, Class<T> typeClass, Gson gson) {
         this.taskManager = taskManager;
         this.typeTask = typeTask;
         this.typeClass = typeClass;
         this.gson = gson;
+        // versions restart with the manager, so the prefix keeps old tags from matching after a restart
+        this.etagPrefix = ETAG_EPOCH + "-" + Integer.toHexString(System.identityHashCode(taskManager)) + "-";
     }
 
     protected Endpoint getEndpoint(String requestPath, String requestMethod) {
@@ -58,6 +80,60 @@ abstract class BaseHttpTaskHandler<M extends TaskManager, T extends Task> implem
         return Endpoint.UNKNOWN;
     }
 
+    protected void baseHandleGetTasks(HttpExchange exchange,
+                                      Supplier<Collection<T>> viewFunction,
+                                      BiFunction<Integer, Integer, List<T>> pageFunction,
+                                      StatusPageFunction<T> statusPageFunction,
+                                      LongSupplier versionFunction) throws IOException {
+
+        long version = versionFunction.getAsLong();
+        Map<String, String> params = getQueryParams(exchange);
+        Status status = null;
+        if (params.containsKey("status")) {
+            try {
+                status = Status.valueOf(params.get("status"));
+            } catch (IllegalArgumentException exception) {
+                writeResponse(exchange, "Некорректный статус задачи", 400);
+                return;
+            }
+        }
+
+        if (!params.containsKey("limit") && !params.containsKey("cursor")) {
+            if (notModified(exchange, version)) {
+                return;
+            }
+            if (status == null) {
+                writeJsonResponse(exchange, viewFunction.get(), 200);
+            } else {
+                writeJsonResponse(exchange, statusPageFunction.apply(status, 0, Integer.MAX_VALUE), 200);
+            }
+            return;
+        }
+
+        int limit;
+        int cursor;
+        try {
+            limit = Integer.parseInt(params.getOrDefault("limit", String.valueOf(DEFAULT_PAGE_SIZE)));
+            cursor = Integer.parseInt(params.getOrDefault("cursor", "0"));
+        } catch (NumberFormatException exception) {
+            writeResponse(exchange, "Некорректные параметры пагинации", 400);
+            return;
+        }
+        if (limit <= 0) {
+            writeResponse(exchange, "Некорректные параметры пагинации", 400);
+            return;
+        }
+
+        if (notModified(exchange, version)) {
+            return;
+        }
+        if (status == null) {
+            writeJsonResponse(exchange, pageFunction.apply(cursor, limit), 200);
+        } else {
+            writeJsonResponse(exchange, statusPageFunction.apply(status, cursor, limit), 200);
+        }
+    }
+
     protected void baseHandleGetTask(HttpExchange exchange, IntFunction<T> getFunction)
             throws IOException, TaskNotFoundException {
 
@@ -68,8 +144,11 @@ abstract class BaseHttpTaskHandler<M extends TaskManager, T extends Task> implem
         }
 
         int id = idOpt.get();
-        String jsonTask = gson.toJson(getFunction.apply(id));
-        writeResponse(exchange, jsonTask, 200);
+        T task = getFunction.apply(id);
+        if (notModified(exchange, task.getVersion())) {
+            return;
+        }
+        writeJsonResponse(exchange, task, 200);
     }
 
     protected void baseHandlePostTask(HttpExchange exchange,
@@ -103,16 +182,60 @@ abstract class BaseHttpTaskHandler<M extends TaskManager, T extends Task> implem
     }
 
 
+    protected boolean notModified(HttpExchange exchange, long version) throws IOException {
+        String etag = "\"" + etagPrefix + version + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals("*")) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return true;
+            }
+        }
+        return false;
+    }
+
     protected void writeResponse(HttpExchange exchange,
                                  String responseString,
                                  int responseCode) throws IOException {
+        byte[] response = responseString.getBytes(DEFAULT_CHARSET);
         try (OutputStream os = exchange.getResponseBody()) {
-            exchange.sendResponseHeaders(responseCode, 0);
-            os.write(responseString.getBytes(DEFAULT_CHARSET));
+            exchange.sendResponseHeaders(responseCode, response.length == 0 ? -1 : response.length);
+            os.write(response);
         }
         exchange.close();
     }
 
+    protected void writeJsonResponse(HttpExchange exchange,
+                                     Object response,
+                                     int responseCode) throws IOException {
+        ResponseBodyStream os = new ResponseBodyStream(exchange, responseCode);
+        JsonWriter writer = gson.newJsonWriter(new BufferedWriter(new OutputStreamWriter(os, DEFAULT_CHARSET)));
+        try {
+            gson.toJson(response, response.getClass(), writer);
+            writer.flush();
+        } catch (RuntimeException | IOException e) {
+            if (!os.isCommitted()) {
+                writeResponse(exchange, "Внутренняя ошибка сервера", 500);
+                return;
+            }
+            // part of a chunked 200 is already out: rethrowing makes the server drop the connection
+            // without the final chunk, so the client can't take the truncated body for a complete one
+            throw e;
+        }
+        writer.close();
+        exchange.close();
+    }
+
     protected Optional<Integer> getTaskId(HttpExchange exchange) {
         String[] pathParts = exchange.getRequestURI().getPath().split("/");
         try {
@@ -122,8 +245,89 @@ abstract class BaseHttpTaskHandler<M extends TaskManager, T extends Task> implem
         }
     }
 
+    protected Map<String, String> getQueryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+
+        for (String param : query.split("&")) {
+            int eq = param.indexOf('=');
+            if (eq < 0) {
+                params.put(URLDecoder.decode(param, DEFAULT_CHARSET), "");
+            } else {
+                params.put(URLDecoder.decode(param.substring(0, eq), DEFAULT_CHARSET),
+                        URLDecoder.decode(param.substring(eq + 1), DEFAULT_CHARSET));
+            }
+        }
+        return params;
+    }
+
+    protected String readBody(InputStream bodyInputStream) throws IOException {
+        return new String(bodyInputStream.readAllBytes(), DEFAULT_CHARSET);
+    }
+
     private T parseTask(InputStream bodyInputStream) throws IOException {
-        String body = new String(bodyInputStream.readAllBytes(), DEFAULT_CHARSET);
-        return gson.fromJson(body, typeClass);
+        return gson.fromJson(readBody(bodyInputStream), typeClass);
+    }
+
+    private static class ResponseBodyStream extends OutputStream {
+
+        private final HttpExchange exchange;
+        private final int responseCode;
+        private final byte[] buffer = new byte[SMALL_RESPONSE_SIZE];
+        private int count;
+        private OutputStream body;
+
+        ResponseBodyStream(HttpExchange exchange, int responseCode) {
+            this.exchange = exchange;
+            this.responseCode = responseCode;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (body == null && count == buffer.length) {
+                startChunked();
+            }
+            if (body != null) {
+                body.write(b);
+            } else {
+                buffer[count++] = (byte) b;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (body == null && count + len <= buffer.length) {
+                System.arraycopy(b, off, buffer, count, len);
+                count += len;
+                return;
+            }
+            if (body == null) {
+                startChunked();
+            }
+            body.write(b, off, len);
+        }
+
+        boolean isCommitted() {
+            return body != null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (body == null) {
+                exchange.sendResponseHeaders(responseCode, count == 0 ? -1 : count);
+                body = exchange.getResponseBody();
+                body.write(buffer, 0, count);
+            }
+            body.close();
+        }
+
+        private void startChunked() throws IOException {
+            exchange.sendResponseHeaders(responseCode, 0);
+            body = exchange.getResponseBody();
+            body.write(buffer, 0, count);
+        }
     }
 }
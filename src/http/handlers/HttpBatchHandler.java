@@ -0,0 +1,107 @@
+package http.handlers;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import utils.exceptions.EpicIllegalArgumentException;
+import utils.exceptions.EpicMatchException;
+import utils.exceptions.ManagerSaveException;
+import utils.exceptions.TaskHasInteractionException;
+import utils.exceptions.TaskNotFoundException;
+
+import tasks.BatchOperation;
+import tasks.Epic;
+import tasks.Subtask;
+import tasks.Task;
+import tasks.TaskManager;
+
+import http.Endpoint;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class HttpBatchHandler<M extends TaskManager> extends BaseHttpTaskHandler<M, Task> {
+    public HttpBatchHandler(M taskManager, Gson gson) {
+        super(taskManager, "batch", Task.class, gson);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        Endpoint endpoint = getEndpoint(exchange.getRequestURI().getPath(), exchange.getRequestMethod());
+
+        try {
+            if (endpoint == Endpoint.POST_TASKS) {
+                handlePostBatch(exchange);
+            } else {
+                writeResponse(exchange, "Такого эндпоинта не существует", 404);
+            }
+        } catch (TaskNotFoundException e) {
+            writeResponse(exchange, e.getMessage(), 404);
+        } catch (TaskHasInteractionException | EpicMatchException | EpicIllegalArgumentException e) {
+            writeResponse(exchange, e.getMessage(), 406);
+        } catch (ManagerSaveException e) {
+            writeResponse(exchange, e.getMessage(), 500);
+        }
+    }
+
+    private void handlePostBatch(HttpExchange exchange) throws IOException {
+        List<BatchOperation> operations;
+        try {
+            operations = parseOperations(readBody(exchange.getRequestBody()));
+        } catch (JsonParseException | IllegalStateException | IllegalArgumentException
+                 | UnsupportedOperationException e) {
+            writeResponse(exchange, "Некорректное тело пакетного запроса", 400);
+            return;
+        }
+
+        writeJsonResponse(exchange, taskManager.applyBatch(operations), 201);
+    }
+
+    private List<BatchOperation> parseOperations(String body) {
+        JsonArray array = JsonParser.parseString(body).getAsJsonArray();
+        List<BatchOperation> operations = new ArrayList<>(array.size());
+
+        for (JsonElement element : array) {
+            JsonObject object = element.getAsJsonObject();
+            BatchOperation.Action action = BatchOperation.Action.valueOf(member(object, "action").getAsString());
+            if (action == BatchOperation.Action.DELETE) {
+                operations.add(new BatchOperation(member(object, "id").getAsInt()));
+                continue;
+            }
+
+            Task task = gson.fromJson(member(object, "task"), typeOf(member(object, "type").getAsString()));
+            if (task == null) {
+                throw new JsonParseException("Пустая задача в пакетной операции");
+            }
+            operations.add(new BatchOperation(action, task));
+        }
+        return operations;
+    }
+
+    private static JsonElement member(JsonObject object, String name) {
+        JsonElement element = object.get(name);
+        if (element == null || element.isJsonNull()) {
+            throw new JsonParseException("Отсутствует поле " + name);
+        }
+        return element;
+    }
+
+    private static Class<? extends Task> typeOf(String type) {
+        switch (type) {
+            case "Task":
+                return Task.class;
+            case "Epic":
+                return Epic.class;
+            case "Subtask":
+                return Subtask.class;
+            default:
+                throw new JsonParseException("Неизвестный тип задачи: " + type);
+        }
+    }
+}
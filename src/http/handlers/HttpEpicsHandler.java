@@ -32,7 +32,8 @@ public class HttpEpicsHandler<M extends TaskManager> extends BaseHttpTaskHandler
             switch (endpoint) {
 
                 case GET_TASKS:
-                    writeResponse(exchange, gson.toJson(taskManager.getEpics()), 200);
+                    baseHandleGetTasks(exchange, taskManager::getEpicsView, taskManager::getEpicsPage,
+                            taskManager::getEpicsByStatusPage, taskManager::getEpicsVersion);
                     break;
                 case GET_TASK_BY_ID:
                     handleGetEpic(exchange);
@@ -86,7 +87,11 @@ public class HttpEpicsHandler<M extends TaskManager> extends BaseHttpTaskHandler
         }
 
         int id = idOpt.get();
+        long version = taskManager.getSubtasksVersion();
         List<Subtask> subtasks = taskManager.getTaskFromEpic(id);
-        writeResponse(exchange, gson.toJson(subtasks), 200);
+        if (notModified(exchange, version)) {
+            return;
+        }
+        writeJsonResponse(exchange, subtasks, 200);
     }
 }
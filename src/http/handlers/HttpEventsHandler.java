@@ -0,0 +1,94 @@
+package http.handlers;
+
+import com.google.gson.Gson;
+import tasks.Task;
+import tasks.TaskEvent;
+import tasks.TaskEventLog;
+import tasks.TaskManager;
+
+import http.Endpoint;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import utils.exceptions.EventsTruncatedException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+public class HttpEventsHandler<M extends TaskManager> extends BaseHttpTaskHandler<M, Task> {
+
+    private static final long DEFAULT_TIMEOUT_MILLIS = 30_000;
+    private static final long MAX_TIMEOUT_MILLIS = 60_000;
+
+    private final TaskEventLog eventLog;
+    private final Executor pollExecutor;
+
+    public HttpEventsHandler(M taskManager, Gson gson, TaskEventLog eventLog, Executor pollExecutor) {
+        super(taskManager, "events", Task.class, gson);
+        this.eventLog = eventLog;
+        this.pollExecutor = pollExecutor;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        Endpoint endpoint = getEndpoint(exchange.getRequestURI().getPath(), exchange.getRequestMethod());
+
+        switch (endpoint) {
+            case GET_TASKS:
+                handleGetEvents(exchange);
+                break;
+            default:
+                writeResponse(exchange, "Такого эндпоинта не существует", 404);
+        }
+    }
+
+    private void handleGetEvents(HttpExchange exchange) throws IOException {
+        Map<String, String> params = getQueryParams(exchange);
+
+        long since;
+        int limit;
+        long timeout;
+        try {
+            since = params.containsKey("since") ? Long.parseLong(params.get("since")) : eventLog.getLastSequence();
+            limit = Integer.parseInt(params.getOrDefault("limit", String.valueOf(DEFAULT_PAGE_SIZE)));
+            timeout = Long.parseLong(params.getOrDefault("timeout", String.valueOf(DEFAULT_TIMEOUT_MILLIS)));
+        } catch (NumberFormatException exception) {
+            writeResponse(exchange, "Некорректные параметры запроса событий", 400);
+            return;
+        }
+        if (since < 0 || limit <= 0 || timeout < 0) {
+            writeResponse(exchange, "Некорректные параметры запроса событий", 400);
+            return;
+        }
+
+        // the wait runs off the dispatcher thread, otherwise one poll would stall the whole server
+        long wait = Math.min(timeout, MAX_TIMEOUT_MILLIS);
+        try {
+            pollExecutor.execute(() -> respond(exchange, since, limit, wait));
+        } catch (RejectedExecutionException exception) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            writeResponse(exchange, "Слишком много ожидающих запросов событий", 503);
+        }
+    }
+
+    private void respond(HttpExchange exchange, long since, int limit, long timeout) {
+        try {
+            try {
+                List<TaskEvent> events = eventLog.poll(since, limit, timeout);
+                writeJsonResponse(exchange, events, 200);
+            } catch (EventsTruncatedException exception) {
+                writeResponse(exchange, exception.getMessage(), 410);
+            } catch (IllegalArgumentException exception) {
+                writeResponse(exchange, exception.getMessage(), 400);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                writeResponse(exchange, "Сервер остановлен", 503);
+            }
+        } catch (IOException exception) {
+            exchange.close();
+        }
+    }
+}
@@ -21,7 +21,10 @@ public class HttpHistoryHandler<M extends TaskManager> extends BaseHttpTaskHandl
 
         switch (endpoint) {
             case GET_TASKS:
-                writeResponse(exchange, gson.toJson(taskManager.getHistory()), 200);
+                if (!notModified(exchange, taskManager.getHistoryVersion())) {
+                    writeJsonResponse(exchange, taskManager.getHistoryView(), 200);
+                }
+                break;
             default:
                 writeResponse(exchange, "Такого эндпоинта не существует", 404);
         }
@@ -9,6 +9,11 @@ import http.Endpoint;
 import com.sun.net.httpserver.HttpExchange;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
 
 public class HttpPrioritizedTasksHandler<M extends TaskManager> extends BaseHttpTaskHandler<M, Task> {
     public HttpPrioritizedTasksHandler(M taskManager, Gson gson) {
@@ -21,9 +26,117 @@ public class HttpPrioritizedTasksHandler<M extends TaskManager> extends BaseHttp
 
         switch (endpoint) {
             case GET_TASKS:
-                writeResponse(exchange, gson.toJson(taskManager.getPrioritizedTasks()), 200);
+                handleGetPrioritizedTasks(exchange);
+                break;
+            case GET_FREE_SLOT:
+                handleGetFreeSlot(exchange);
+                break;
             default:
                 writeResponse(exchange, "Такого эндпоинта не существует", 404);
         }
     }
+
+    @Override
+    protected Endpoint getEndpoint(String requestPath, String requestMethod) {
+        String[] pathParts = requestPath.split("/");
+
+        if (pathParts.length == 3 && pathParts[2].equals("free-slot") && requestMethod.equals("GET")) {
+            return Endpoint.GET_FREE_SLOT;
+        }
+        return super.getEndpoint(requestPath, requestMethod);
+    }
+
+    private void handleGetFreeSlot(HttpExchange exchange) throws IOException {
+        Map<String, String> params = getQueryParams(exchange);
+
+        Duration duration;
+        Instant notBefore;
+        try {
+            duration = Duration.ofMinutes(Long.parseLong(params.getOrDefault("duration", "")));
+            notBefore = params.containsKey("notBefore") ? Instant.parse(params.get("notBefore")) : Instant.now();
+        } catch (NumberFormatException | ArithmeticException | DateTimeParseException exception) {
+            writeResponse(exchange, "Некорректные параметры поиска слота", 400);
+            return;
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            writeResponse(exchange, "Некорректные параметры поиска слота", 400);
+            return;
+        }
+
+        Instant slot;
+        try {
+            slot = taskManager.findFreeSlot(duration, notBefore);
+        } catch (ArithmeticException | DateTimeException exception) {
+            // the slot would end past the largest representable instant
+            writeResponse(exchange, "Некорректные параметры поиска слота", 400);
+            return;
+        }
+        writeJsonResponse(exchange, slot, 200);
+    }
+
+    private void handleGetPrioritizedTasks(HttpExchange exchange) throws IOException {
+        long version = taskManager.getPrioritizedTasksVersion();
+        Map<String, String> params = getQueryParams(exchange);
+        if (params.containsKey("from") || params.containsKey("to")) {
+            handleGetTimeRange(exchange, params, version);
+            return;
+        }
+        if (!params.containsKey("limit") && !params.containsKey("after")) {
+            if (notModified(exchange, version)) {
+                return;
+            }
+            writeJsonResponse(exchange, taskManager.getPrioritizedTasksView(), 200);
+            return;
+        }
+
+        int limit;
+        Instant after;
+        int afterId;
+        try {
+            limit = Integer.parseInt(params.getOrDefault("limit", String.valueOf(DEFAULT_PAGE_SIZE)));
+            after = params.containsKey("after") ? Instant.parse(params.get("after")) : null;
+            // without afterId every task starting exactly at "after" counts as already seen
+            afterId = Integer.parseInt(params.getOrDefault("afterId", String.valueOf(Integer.MAX_VALUE)));
+        } catch (NumberFormatException | DateTimeParseException exception) {
+            writeResponse(exchange, "Некорректные параметры пагинации", 400);
+            return;
+        }
+        if (limit <= 0) {
+            writeResponse(exchange, "Некорректные параметры пагинации", 400);
+            return;
+        }
+
+        if (notModified(exchange, version)) {
+            return;
+        }
+        writeJsonResponse(exchange, taskManager.getPrioritizedTasksPage(after, afterId, limit), 200);
+    }
+
+    private void handleGetTimeRange(HttpExchange exchange, Map<String, String> params, long version)
+            throws IOException {
+        Instant from;
+        Instant to;
+        int limit;
+        try {
+            from = Instant.parse(params.getOrDefault("from", ""));
+            to = params.containsKey("to") ? Instant.parse(params.get("to")) : null;
+            limit = Integer.parseInt(params.getOrDefault("limit", String.valueOf(DEFAULT_PAGE_SIZE)));
+        } catch (NumberFormatException | DateTimeParseException exception) {
+            writeResponse(exchange, "Некорректные параметры диапазона", 400);
+            return;
+        }
+        if (limit <= 0 || (to != null && to.isBefore(from))) {
+            writeResponse(exchange, "Некорректные параметры диапазона", 400);
+            return;
+        }
+
+        if (notModified(exchange, version)) {
+            return;
+        }
+        if (to == null) {
+            writeJsonResponse(exchange, taskManager.getNextTasks(from, limit), 200);
+        } else {
+            writeJsonResponse(exchange, taskManager.getTasksBetween(from, to, limit), 200);
+        }
+    }
 }
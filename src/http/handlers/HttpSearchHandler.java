@@ -0,0 +1,53 @@
+package http.handlers;
+
+import com.google.gson.Gson;
+import tasks.Task;
+import tasks.TaskManager;
+
+import http.Endpoint;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.Map;
+
+public class HttpSearchHandler<M extends TaskManager> extends BaseHttpTaskHandler<M, Task> {
+    public HttpSearchHandler(M taskManager, Gson gson) {
+        super(taskManager, "search", Task.class, gson);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        Endpoint endpoint = getEndpoint(exchange.getRequestURI().getPath(), exchange.getRequestMethod());
+
+        switch (endpoint) {
+            case GET_TASKS:
+                handleSearch(exchange);
+                break;
+            default:
+                writeResponse(exchange, "Такого эндпоинта не существует", 404);
+        }
+    }
+
+    private void handleSearch(HttpExchange exchange) throws IOException {
+        Map<String, String> params = getQueryParams(exchange);
+        if (!params.containsKey("q")) {
+            writeResponse(exchange, "Не задан поисковый запрос", 400);
+            return;
+        }
+
+        int limit;
+        try {
+            limit = Integer.parseInt(params.getOrDefault("limit", String.valueOf(DEFAULT_PAGE_SIZE)));
+        } catch (NumberFormatException exception) {
+            writeResponse(exchange, "Некорректные параметры пагинации", 400);
+            return;
+        }
+        if (limit <= 0) {
+            writeResponse(exchange, "Некорректные параметры пагинации", 400);
+            return;
+        }
+
+        writeJsonResponse(exchange, taskManager.search(params.get("q"), limit), 200);
+    }
+}
@@ -27,7 +27,8 @@ public class HttpSubtasksHandler<M extends TaskManager> extends BaseHttpTaskHand
         try {
             switch (endpoint) {
                 case GET_TASKS:
-                    writeResponse(exchange, gson.toJson(taskManager.getSubtasks()), 200);
+                    baseHandleGetTasks(exchange, taskManager::getSubtasksView, taskManager::getSubtasksPage,
+                            taskManager::getSubtasksByStatusPage, taskManager::getSubtasksVersion);
                     break;
                 case GET_TASK_BY_ID:
                     handleGetSubtask(exchange);
@@ -27,7 +27,8 @@ public class HttpTasksHandler<M extends TaskManager> extends BaseHttpTaskHandler
         try {
             switch (endpoint) {
                 case GET_TASKS:
-                    writeResponse(exchange, gson.toJson(taskManager.getTasks()), 200);
+                    baseHandleGetTasks(exchange, taskManager::getTasksView, taskManager::getTasksPage,
+                            taskManager::getTasksByStatusPage, taskManager::getTasksVersion);
                     break;
                 case GET_TASK_BY_ID:
                     handleGetTask(exchange);
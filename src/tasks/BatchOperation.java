@@ -0,0 +1,38 @@
+package tasks;
+
+public class BatchOperation {
+
+    public enum Action {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    private final Action action;
+    private final Task task;
+    private final int id;
+
+    public BatchOperation(Action action, Task task) {
+        this.action = action;
+        this.task = task;
+        this.id = task.getId();
+    }
+
+    public BatchOperation(int id) {
+        this.action = Action.DELETE;
+        this.task = null;
+        this.id = id;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public int getId() {
+        return id;
+    }
+}
@@ -0,0 +1,251 @@
+package tasks;
+
+import utils.exceptions.ManagerSaveException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+final class BinarySnapshot {
+
+    static final int MAGIC = 0x4B4E4253;
+    static final int VERSION = 1;
+
+    private static final byte TASK = 0;
+    private static final byte EPIC = 1;
+    private static final byte SUBTASK = 2;
+
+    private static final int HAS_START_TIME = 1;
+    private static final int HAS_DURATION = 2;
+
+    private static final Status[] STATUSES = Status.values();
+
+    private BinarySnapshot() {
+    }
+
+    static boolean isBinary(File file) {
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] header = in.readNBytes(4);
+            return header.length == 4 && ByteBuffer.wrap(header).getInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    static void write(SnapshotBuffer buffer,
+                      Collection<Task> tasks,
+                      Collection<Epic> epics,
+                      Collection<Subtask> subtasks,
+                      Collection<Task> history) throws IOException {
+
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+
+            writeVarInt(out, tasks.size() + epics.size() + subtasks.size());
+            for (Task task : tasks) {
+                writeTask(out, TASK, task);
+            }
+            for (Epic epic : epics) {
+                writeTask(out, EPIC, epic);
+            }
+            for (Subtask subtask : subtasks) {
+                writeTask(out, SUBTASK, subtask);
+                writeVarInt(out, subtask.getEpicId());
+            }
+
+            writeVarInt(out, history.size());
+            for (Task task : history) {
+                writeVarInt(out, task.getId());
+            }
+
+            out.writeInt(buffer.checksum());
+        }
+    }
+
+    static void read(File file, Consumer<Task> taskConsumer, IntConsumer historyConsumer) throws IOException {
+        byte[] data = Files.readAllBytes(file.toPath());
+        ByteBuffer in = ByteBuffer.wrap(data);
+
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new ManagerSaveException("Файл " + file.getPath() + " не является бинарным снимком");
+            }
+            int version = in.get();
+            if (version != VERSION) {
+                throw new ManagerSaveException("Неподдерживаемая версия снимка: " + version);
+            }
+
+            int contentLength = data.length - Integer.BYTES;
+            if (contentLength < in.position()
+                    || SnapshotBuffer.checksum(ByteBuffer.wrap(data, 0, contentLength)) != in.getInt(contentLength)) {
+                throw new ManagerSaveException("Контрольная сумма снимка " + file.getPath() + " не совпадает");
+            }
+            in.limit(contentLength);
+
+            int count = readVarInt(in);
+            for (int i = 0; i < count; i++) {
+                taskConsumer.accept(readTask(in));
+            }
+
+            int historySize = readVarInt(in);
+            for (int i = 0; i < historySize; i++) {
+                historyConsumer.accept(readVarInt(in));
+            }
+        } catch (BufferUnderflowException e) {
+            throw new ManagerSaveException("Снимок " + file.getPath() + " повреждён");
+        }
+    }
+
+    static String encode(Task task) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            if (task instanceof Subtask) {
+                writeTask(out, SUBTASK, task);
+                writeVarInt(out, ((Subtask) task).getEpicId());
+            } else {
+                writeTask(out, task instanceof Epic ? EPIC : TASK, task);
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("При кодировании задачи произошла ошибка: " + e.getMessage());
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    static Task decode(String value) {
+        try {
+            return readTask(ByteBuffer.wrap(Base64.getDecoder().decode(value)));
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            throw new ManagerSaveException("Некорректная запись журнала: " + value);
+        }
+    }
+
+    private static void writeTask(DataOutputStream out, byte type, Task task) throws IOException {
+        Instant startTime = task.getStartTime().orElse(null);
+        Duration duration = task.getDuration().orElse(null);
+        Status status = task.getStatus();
+
+        out.writeByte(type);
+        writeVarInt(out, task.getId());
+        writeString(out, task.getName());
+        writeString(out, task.getDescription());
+        out.writeByte(status == null ? -1 : status.ordinal());
+        out.writeByte((startTime != null ? HAS_START_TIME : 0) | (duration != null ? HAS_DURATION : 0));
+        if (startTime != null) {
+            out.writeLong(startTime.getEpochSecond());
+            writeVarInt(out, startTime.getNano());
+        }
+        if (duration != null) {
+            writeVarLong(out, duration.getSeconds());
+            writeVarInt(out, duration.getNano());
+        }
+    }
+
+    private static Task readTask(ByteBuffer in) {
+        byte type = in.get();
+        int id = readVarInt(in);
+        String name = readString(in);
+        String description = readString(in);
+        byte statusOrdinal = in.get();
+        Status status = statusOrdinal < 0 ? null : STATUSES[statusOrdinal];
+        int flags = in.get();
+
+        Instant startTime = null;
+        Duration duration = null;
+        if ((flags & HAS_START_TIME) != 0) {
+            long seconds = in.getLong();
+            startTime = Instant.ofEpochSecond(seconds, readVarInt(in));
+        }
+        if ((flags & HAS_DURATION) != 0) {
+            long seconds = readVarLong(in);
+            duration = Duration.ofSeconds(seconds, readVarInt(in));
+        }
+
+        switch (type) {
+            case TASK:
+                return new Task(id, name, description, status, startTime, duration);
+            case EPIC:
+                return new Epic(id, name, description, status, startTime, duration);
+            case SUBTASK:
+                return new Subtask(id, name, description, status, startTime, duration, readVarInt(in));
+            default:
+                throw new ManagerSaveException("Неизвестный тип задачи в снимке: " + type);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new ManagerSaveException("Некорректное число в снимке");
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new ManagerSaveException("Некорректное число в снимке");
+    }
+}
@@ -0,0 +1,442 @@
+package tasks;
+
+import history.HistoryManager;
+import history.SynchronizedHistoryManager;
+import utils.Manager;
+import utils.exceptions.EpicMatchException;
+import utils.exceptions.TaskNotFoundException;
+import utils.exceptions.TaskHasInteractionException;
+import utils.exceptions.EpicIllegalArgumentException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+public class ConcurrentTaskManager extends InMemoryTaskManager {
+
+    private final AtomicInteger idGenerator = new AtomicInteger(1);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock readLock = lock.readLock();
+    private final Lock writeLock = lock.writeLock();
+
+    public ConcurrentTaskManager() {
+        this(new SynchronizedHistoryManager(Manager.getDefaultHistory()));
+    }
+
+    public ConcurrentTaskManager(HistoryManager historyManager) {
+        super(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), historyManager);
+    }
+
+    @Override
+    protected int nextId() {
+        return idGenerator.getAndIncrement();
+    }
+
+    @Override
+    public Task getTask(int id) throws TaskNotFoundException {
+        readLock.lock();
+        try {
+            return super.getTask(id).copy();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Epic getEpic(int id) throws TaskNotFoundException {
+        readLock.lock();
+        try {
+            return super.getEpic(id).copy();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Subtask getSubtask(int id) throws TaskNotFoundException {
+        readLock.lock();
+        try {
+            return super.getSubtask(id).copy();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        readLock.lock();
+        try {
+            return copies(super.getHistory());
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Epic> getEpics() {
+        readLock.lock();
+        try {
+            return copies(super.getEpicsView());
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getTasks() {
+        readLock.lock();
+        try {
+            return copies(super.getTasksView());
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Subtask> getSubtasks() {
+        readLock.lock();
+        try {
+            return copies(super.getSubtasksView());
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Collection<Task> getHistoryView() {
+        return new SnapshotView<>(this::getHistory, () -> super.getHistoryView().size());
+    }
+
+    @Override
+    public Collection<Epic> getEpicsView() {
+        return new SnapshotView<>(this::getEpics, () -> super.getEpicsView().size());
+    }
+
+    @Override
+    public Collection<Task> getTasksView() {
+        return new SnapshotView<>(this::getTasks, () -> super.getTasksView().size());
+    }
+
+    @Override
+    public Collection<Subtask> getSubtasksView() {
+        return new SnapshotView<>(this::getSubtasks, () -> super.getSubtasksView().size());
+    }
+
+    @Override
+    public SortedSet<Task> getPrioritizedTasks() {
+        readLock.lock();
+        try {
+            SortedSet<Task> prioritized = super.getPrioritizedTasksView();
+            SortedSet<Task> copy = new TreeSet<>(prioritized.comparator());
+            for (Task task : prioritized) {
+                copy.add(task.copy());
+            }
+            return copy;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public SortedSet<Task> getPrioritizedTasksView() {
+        return Collections.unmodifiableSortedSet(getPrioritizedTasks());
+    }
+
+    @Override
+    public List<Task> getTasksPage(int afterId, int limit) {
+        readLock.lock();
+        try {
+            return copies(super.getTasksPage(afterId, limit));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Epic> getEpicsPage(int afterId, int limit) {
+        readLock.lock();
+        try {
+            return copies(super.getEpicsPage(afterId, limit));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Subtask> getSubtasksPage(int afterId, int limit) {
+        readLock.lock();
+        try {
+            return copies(super.getSubtasksPage(afterId, limit));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getTasksByStatusPage(Status status, int afterId, int limit) {
+        readLock.lock();
+        try {
+            return copies(super.getTasksByStatusPage(status, afterId, limit));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Epic> getEpicsByStatusPage(Status status, int afterId, int limit) {
+        readLock.lock();
+        try {
+            return copies(super.getEpicsByStatusPage(status, afterId, limit));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Subtask> getSubtasksByStatusPage(Status status, int afterId, int limit) {
+        readLock.lock();
+        try {
+            return copies(super.getSubtasksByStatusPage(status, afterId, limit));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksPage(Instant after, int afterId, int limit) {
+        readLock.lock();
+        try {
+            return copies(super.getPrioritizedTasksPage(after, afterId, limit));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Integer> search(String query, int limit) {
+        readLock.lock();
+        try {
+            return super.search(query, limit);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getTasksBetween(Instant from, Instant to, int limit) {
+        readLock.lock();
+        try {
+            return copies(super.getTasksBetween(from, to, limit));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getNextTasks(Instant after, int limit) {
+        readLock.lock();
+        try {
+            return copies(super.getNextTasks(after, limit));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Instant findFreeSlot(Duration duration, Instant notBefore) {
+        readLock.lock();
+        try {
+            return super.findFreeSlot(duration, notBefore);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Subtask> getTaskFromEpic(int epicId) throws TaskNotFoundException {
+        readLock.lock();
+        try {
+            return copies(super.getTaskFromEpic(epicId));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    // stored tasks are mutated in place under the write lock, so readers get copies taken under the read lock
+    @SuppressWarnings("unchecked")
+    private static <T extends Task> List<T> copies(Collection<T> tasks) {
+        List<T> copies = new ArrayList<>(tasks.size());
+        for (T task : tasks) {
+            copies.add((T) task.copy());
+        }
+        return copies;
+    }
+
+    // a live view that hands out a fresh copy of the collection on every traversal
+    private static class SnapshotView<T> extends AbstractCollection<T> {
+        private final Supplier<List<T>> snapshot;
+        private final IntSupplier size;
+
+        SnapshotView(Supplier<List<T>> snapshot, IntSupplier size) {
+            this.snapshot = snapshot;
+            this.size = size;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return Collections.unmodifiableList(snapshot.get()).iterator();
+        }
+
+        @Override
+        public int size() {
+            return size.getAsInt();
+        }
+    }
+
+    @Override
+    public int createTask(Task task) throws TaskHasInteractionException {
+        writeLock.lock();
+        try {
+            return super.createTask(task);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Integer> applyBatch(List<BatchOperation> operations) throws TaskNotFoundException,
+            TaskHasInteractionException, EpicMatchException, EpicIllegalArgumentException {
+
+        writeLock.lock();
+        try {
+            return super.applyBatch(operations);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public int createEpic(Epic epic) throws EpicIllegalArgumentException {
+        writeLock.lock();
+        try {
+            return super.createEpic(epic);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public int createSubtask(Subtask subtask) throws TaskNotFoundException, TaskHasInteractionException {
+        writeLock.lock();
+        try {
+            return super.createSubtask(subtask);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeTask(int id) throws TaskNotFoundException {
+        writeLock.lock();
+        try {
+            super.removeTask(id);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeEpic(int id) throws TaskNotFoundException {
+        writeLock.lock();
+        try {
+            super.removeEpic(id);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeSubtask(int id) throws TaskNotFoundException {
+        writeLock.lock();
+        try {
+            super.removeSubtask(id);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeAllTask() {
+        writeLock.lock();
+        try {
+            super.removeAllTask();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeAllSubtask() {
+        writeLock.lock();
+        try {
+            super.removeAllSubtask();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeAllEpic() {
+        writeLock.lock();
+        try {
+            super.removeAllEpic();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void updateTask(Task newTask) throws TaskNotFoundException, TaskHasInteractionException {
+        writeLock.lock();
+        try {
+            super.updateTask(newTask);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void updateEpic(Epic newEpic) throws TaskNotFoundException {
+        writeLock.lock();
+        try {
+            super.updateEpic(newEpic);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void updateSubtask(Subtask newSubtask)
+            throws TaskNotFoundException, TaskHasInteractionException, EpicMatchException {
+
+        writeLock.lock();
+        try {
+            super.updateSubtask(newSubtask);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -1,16 +1,30 @@
 package tasks;
 
+import utils.collections.IntArraySet;
+
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
 
 public class Epic extends Task {
 
     private Instant endTime;
 
-    private ArrayList<Integer> subtasksId = new ArrayList<>();
+    private IntArraySet subtasksId = new IntArraySet();
+
+    private transient SubtasksStats stats;
+
+    private static class SubtasksStats {
+        int count;
+        int newCount;
+        int doneCount;
+        Duration duration = Duration.ZERO;
+        final TreeMap<Instant, Integer> startTimes = new TreeMap<>();
+        final TreeMap<Instant, Integer> endTimes = new TreeMap<>();
+    }
 
     public Epic(String name, String description) {
         super(name, description);
@@ -37,19 +51,109 @@ public class Epic extends Task {
         this.endTime = endTime;
     }
 
-    public void addSubtaskId(Integer subtaskId) {
+    @Override
+    Epic copy() {
+        Epic copy = new Epic(id, name, description, status, startTime, duration);
+        copy.endTime = endTime;
+        copy.subtasksId = new IntArraySet(subtasksId.toArray());
+        copy.setVersion(getVersion());
+        return copy;
+    }
+
+    public void addSubtaskId(int subtaskId) {
         subtasksId.add(subtaskId);
     }
 
+    public void addSubtask(Subtask subtask) {
+        subtasksId.add(subtask.getId());
+        addSubtaskStats(subtask);
+    }
+
     public List<Integer> getSubtasks() {
-        return new ArrayList<>(subtasksId);
+        return subtasksId.toList();
+    }
+
+    public int getSubtasksCount() {
+        return subtasksId.size();
+    }
+
+    public void forEachSubtaskId(IntConsumer action) {
+        subtasksId.forEach(action);
     }
 
-    public void removeSubtask(Integer subtaskId) {
+    public void removeSubtask(int subtaskId) {
         subtasksId.remove(subtaskId);
     }
 
+    public void removeSubtask(Subtask subtask) {
+        subtasksId.remove(subtask.getId());
+        removeSubtaskStats(subtask);
+    }
+
     public void removeAllSubtasks() {
         subtasksId.clear();
+        stats = null;
+        updateFromStats();
+    }
+
+    void addSubtaskStats(Subtask subtask) {
+        SubtasksStats s = stats();
+        Status subtaskStatus = subtask.getStatus();
+
+        s.count++;
+        if (subtaskStatus == Status.NEW) {
+            s.newCount++;
+        } else if (subtaskStatus == Status.DONE) {
+            s.doneCount++;
+        }
+        subtask.getDuration().ifPresent(d -> s.duration = s.duration.plus(d));
+        subtask.getStartTime().ifPresent(st -> s.startTimes.merge(st, 1, Integer::sum));
+        subtask.getEndTime().ifPresent(et -> s.endTimes.merge(et, 1, Integer::sum));
+
+        updateFromStats();
+    }
+
+    void removeSubtaskStats(Subtask subtask) {
+        SubtasksStats s = stats();
+        Status subtaskStatus = subtask.getStatus();
+
+        s.count--;
+        if (subtaskStatus == Status.NEW) {
+            s.newCount--;
+        } else if (subtaskStatus == Status.DONE) {
+            s.doneCount--;
+        }
+        subtask.getDuration().ifPresent(d -> s.duration = s.duration.minus(d));
+        subtask.getStartTime().ifPresent(st -> decrement(s.startTimes, st));
+        subtask.getEndTime().ifPresent(et -> decrement(s.endTimes, et));
+
+        updateFromStats();
+    }
+
+    private SubtasksStats stats() {
+        if (stats == null) {
+            stats = new SubtasksStats();
+        }
+        return stats;
+    }
+
+    private static void decrement(TreeMap<Instant, Integer> times, Instant time) {
+        times.computeIfPresent(time, (k, cnt) -> cnt > 1 ? cnt - 1 : null);
+    }
+
+    private void updateFromStats() {
+        SubtasksStats s = stats();
+
+        if (s.count == 0 || s.newCount == s.count) {
+            status = Status.NEW;
+        } else if (s.doneCount == s.count) {
+            status = Status.DONE;
+        } else {
+            status = Status.IN_PROGRESS;
+        }
+
+        duration = s.duration.equals(Duration.ZERO) ? null : s.duration;
+        startTime = s.startTimes.isEmpty() ? null : s.startTimes.firstKey();
+        endTime = s.endTimes.isEmpty() ? null : s.endTimes.lastKey();
     }
 }
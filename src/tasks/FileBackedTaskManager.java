@@ -3,46 +3,298 @@ package tasks;
 import java.io.*;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import utils.exceptions.*;
 
-public class FileBackedTaskManager extends InMemoryTaskManager {
+public class FileBackedTaskManager extends InMemoryTaskManager implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(FileBackedTaskManager.class.getName());
+    private static final int DEFAULT_JOURNAL_LIMIT = 1000;
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+    private static final String CSV_CHECKSUM_PREFIX = "#crc32c:";
 
     private final File path;
+    private final SnapshotFormat format;
+    private final File journal;
+    private final File historyJournal;
+    private final int journalLimit;
+    private int journalSize = -1;
+    private int historyJournalSize;
+
+    private final StringBuilder pending = new StringBuilder();
+    private final StringBuilder pendingHistory = new StringBuilder();
+    private final int flushBatchSize;
+    private int pendingSize;
+    private boolean batching;
+    private int batchRecords;
+    private final ScheduledExecutorService flusher;
+    private SnapshotBuffer snapshotBuffer;
+    private boolean closed;
 
     public FileBackedTaskManager(File path) {
+        this(path, DEFAULT_JOURNAL_LIMIT);
+    }
+
+    public FileBackedTaskManager(File path, int journalLimit) {
+        this(path, journalLimit, 0, 1);
+    }
+
+    public FileBackedTaskManager(File path, long flushIntervalMillis, int flushBatchSize) {
+        this(path, DEFAULT_JOURNAL_LIMIT, flushIntervalMillis, flushBatchSize);
+    }
+
+    public FileBackedTaskManager(File path, SnapshotFormat format) {
+        this(path, format, DEFAULT_JOURNAL_LIMIT, 0, 1);
+    }
+
+    public FileBackedTaskManager(File path, int journalLimit, long flushIntervalMillis, int flushBatchSize) {
+        this(path, SnapshotFormat.CSV, journalLimit, flushIntervalMillis, flushBatchSize);
+    }
+
+    public FileBackedTaskManager(File path, SnapshotFormat format, int journalLimit,
+                                 long flushIntervalMillis, int flushBatchSize) {
         this.path = path;
+        this.format = format;
+        this.journal = new File(path.getPath() + ".journal");
+        this.historyJournal = new File(path.getPath() + ".history");
+        this.journalLimit = journalLimit;
+        this.flushBatchSize = flushBatchSize;
+
+        if (flushIntervalMillis > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "journal-flusher");
+                t.setDaemon(true);
+                return t;
+            });
+            flusher.scheduleWithFixedDelay(this::flushQuietly,
+                    flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    private SnapshotBuffer resetBuffer() {
+        if (snapshotBuffer == null) {
+            snapshotBuffer = new SnapshotBuffer();
+        }
+        snapshotBuffer.reset();
+        return snapshotBuffer;
     }
 
     private void save() throws ManagerSaveException {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(path, StandardCharsets.UTF_8))) {
+        resetBuffer();
+
+        try {
+            if (format == SnapshotFormat.BINARY) {
+                BinarySnapshot.write(snapshotBuffer, getTasksView(), getEpicsView(), getSubtasksView(),
+                        getHistoryView());
+            } else {
+                writeCsv(snapshotBuffer);
+            }
+            snapshotBuffer.writeAtomically(path.toPath());
+        } catch (IOException e) {
+            throw new ManagerSaveException("При записи задач произошшла ошибка: " + e.getMessage());
+        }
+    }
+
+    private void writeCsv(SnapshotBuffer buffer) throws IOException {
+        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(buffer, StandardCharsets.UTF_8));
+
+        bw.write("id,type,name,description,status,startTime,duration,epicId\n");
 
-            bw.write("id,type,name,description,status,startTime,duration,epicId\n");
+        writeTaskToCsv(bw, getTasksView());
+        writeTaskToCsv(bw, getEpicsView());
+        writeTaskToCsv(bw, getSubtasksView());
 
-            writeTaskToCsv(bw, getTasks());
-            writeTaskToCsv(bw, getEpics());
-            writeTaskToCsv(bw, getSubtasks());
+        bw.write("\n");
 
-            bw.write("\n");
+        writeHistoryToCsv(bw, getHistoryView());
+        bw.flush();
 
-            writeHistoryToCsv(bw, getHistory());
+        bw.write("\n" + CSV_CHECKSUM_PREFIX + Integer.toHexString(buffer.checksum()));
+        bw.flush();
+    }
+
+    private void compact() throws ManagerSaveException {
+        save();
+        deleteJournal(journal);
+        deleteJournal(historyJournal);
+        pending.setLength(0);
+        pendingHistory.setLength(0);
+        pendingSize = 0;
+        journalSize = 0;
+        historyJournalSize = 0;
+    }
 
+    private void compactHistory() throws ManagerSaveException {
+        pendingHistory.setLength(0);
+        for (Task t : getHistoryView()) {
+            pendingHistory.append(JournalOperation.VIEW).append(',').append(t.getId()).append('\n');
+        }
 
+        // replaced through a temp file like the snapshot, so a crash keeps the old log intact
+        SnapshotBuffer buffer = resetBuffer();
+        try {
+            buffer.write(pendingHistory.toString().getBytes(StandardCharsets.UTF_8));
+            buffer.writeAtomically(historyJournal.toPath());
         } catch (IOException e) {
-            throw new ManagerSaveException("При записи задач произошшла ошибка: " + e.getMessage());
+            throw new ManagerSaveException("При записи в журнал произошла ошибка: " + e.getMessage());
+        }
+        pendingHistory.setLength(0);
+        historyJournalSize = 0;
+    }
+
+    private void deleteJournal(File file) throws ManagerSaveException {
+        if (file.exists() && !file.delete()) {
+            throw new ManagerSaveException("Не удалось очистить журнал " + file.getPath());
+        }
+    }
+
+    private void record(JournalOperation operation, String value) throws ManagerSaveException {
+        synchronized (pending) {
+            if (batching) {
+                batchRecords++;
+                if (journalSize >= 0) {
+                    append(operation, value);
+                }
+                return;
+            }
+            if (journalSize < 0 || journalSize >= journalLimit) {
+                compact();
+                return;
+            }
+
+            append(operation, value);
+
+            if (writeThrough()) {
+                writePending();
+            }
+        }
+    }
+
+    private void append(JournalOperation operation, String value) {
+        pending.append(operation).append(',').append(value).append('\n');
+        pendingSize++;
+        journalSize++;
+    }
+
+    private void finishBatch() throws ManagerSaveException {
+        if (batchRecords == 0) {
+            return;
+        }
+        batchRecords = 0;
+
+        if (journalSize < 0 || journalSize > journalLimit) {
+            compact();
+        } else if (writeThrough()) {
+            writePending();
+        }
+    }
+
+    private void recordView(int id) throws ManagerSaveException {
+        synchronized (pending) {
+            if (historyJournalSize >= journalLimit) {
+                compactHistory();
+                return;
+            }
+
+            pendingHistory.append(JournalOperation.VIEW).append(',').append(id).append('\n');
+            pendingSize++;
+            historyJournalSize++;
+
+            if (writeThrough()) {
+                writePending();
+            }
+        }
+    }
+
+    private void writePending() throws ManagerSaveException {
+        if (pendingSize == 0) {
+            return;
+        }
+
+        writeJournal(journal, pending);
+        pending.setLength(0);
+        writeJournal(historyJournal, pendingHistory);
+        pendingHistory.setLength(0);
+        pendingSize = 0;
+    }
+
+    private boolean writeThrough() {
+        // after close nothing is left to flush the buffer, so records go straight to disk
+        return flusher == null || closed || pendingSize >= flushBatchSize;
+    }
+
+    private void writeJournal(File file, StringBuilder records) throws ManagerSaveException {
+        if (records.length() == 0) {
+            return;
+        }
+
+        long intactLength = file.length();
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8, true))) {
+            bw.append(records);
+        } catch (IOException e) {
+            // cut a partly written batch off, so the retry doesn't land after a torn record
+            if (file.exists()) {
+                truncateJournal(file, intactLength);
+            }
+            throw new ManagerSaveException("При записи в журнал произошла ошибка: " + e.getMessage());
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (ManagerSaveException e) {
+            // pending records are kept and retried on the next flush
+            LOG.log(Level.WARNING, "Не удалось записать журнал " + journal.getPath() + ", повтор при следующей записи", e);
+        }
+    }
+
+    public void flush() throws ManagerSaveException {
+        synchronized (pending) {
+            writePending();
+        }
+    }
+
+    @Override
+    public void close() throws ManagerSaveException {
+        if (flusher != null) {
+            flusher.shutdown();
         }
+        synchronized (pending) {
+            closed = true;
+            writePending();
+        }
+    }
+
+    private String encode(Task task) {
+        return format == SnapshotFormat.BINARY ? BinarySnapshot.encode(task) : task.toString();
     }
 
-    private void writeTaskToCsv(BufferedWriter bw, List<? extends Task> tasks) throws IOException {
+    private void writeTaskToCsv(BufferedWriter bw, Collection<? extends Task> tasks) throws IOException {
         for (Task t : tasks) {
             bw.write(t.toString() + "\n");
         }
     }
 
-    private void writeHistoryToCsv(BufferedWriter bw, List<Task> history) throws IOException {
+    private void writeHistoryToCsv(BufferedWriter bw, Collection<Task> history) throws IOException {
         List<String> historyId = new ArrayList<>();
         for (Task t : history) {
             historyId.add(String.valueOf(t.getId()));
@@ -51,7 +303,7 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         bw.write(String.join(",", historyId));
     }
 
-    private Task taskFromString(String value) {
+    private static Task taskFromString(String value) {
         String[] strArr = value.split(",");
 
         String type = strArr[1];
@@ -85,7 +337,7 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         }
     }
 
-    private Status statusFromString(String value) {
+    private static Status statusFromString(String value) {
         switch (value) {
             case "NEW":
                 return Status.NEW;
@@ -101,145 +353,462 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     private static void addTask(Task task, FileBackedTaskManager fm) {
         if (task.getClass() == Epic.class) {
             fm.epics.put(task.getId(), (Epic) task);
+            fm.epicIds.set(task.getId());
+            fm.epicStatuses.update(task);
+            fm.textIndex.update(task);
         } else if (task.getClass() == Subtask.class) {
             Subtask subtask = (Subtask) task;
             fm.subtasks.put(task.getId(), subtask);
+            fm.subtaskIds.set(task.getId());
+            fm.addToIndexes(subtask);
 
-            int subtaskId = subtask.getId();
-            int epicId = subtask.getEpicId();
-            Epic e = fm.epics.get(epicId);
+            Epic e = fm.epics.get(subtask.getEpicId());
             if (e != null) {
-                e.addSubtaskId(subtaskId);
+                e.addSubtask(subtask);
+                fm.epicStatuses.update(e);
             }
 
         } else {
             fm.tasks.put(task.getId(), task);
+            fm.taskIds.set(task.getId());
+            fm.addToIndexes(task);
+        }
+
+        if (task.getId() >= fm.cntId) {
+            fm.cntId = task.getId() + 1;
         }
     }
 
     private static void addHistoryTask(String value, FileBackedTaskManager fm) {
-        if (value != null) {
+        if (value != null && !value.isEmpty()) {
             String[] indicators = value.split(",");
             for (String indicator : indicators) {
-                int id = Integer.parseInt(indicator);
+                addHistoryTask(Integer.parseInt(indicator), fm);
+            }
+        }
+    }
 
-                Task t = fm.tasks.get(id);
-                Epic e = fm.epics.get(id);
-                Subtask s = fm.subtasks.get(id);
+    private static void addHistoryTask(int id, FileBackedTaskManager fm) {
+        Task task = fm.tasks.get(id);
+        if (task == null) {
+            task = fm.epics.get(id);
+        }
+        if (task == null) {
+            task = fm.subtasks.get(id);
+        }
+        if (task != null) {
+            fm.historyManager.add(task);
+        }
+    }
 
-                if (t != null) {
-                    fm.historyManager.add(t);
-                }
-                if (e != null) {
-                    fm.historyManager.add(e);
+    private void replayPut(Task task) {
+        Task existing = tasks.get(task.getId());
+        if (existing == null) {
+            existing = subtasks.get(task.getId());
+        }
+        if (existing == null) {
+            Epic epic = epics.get(task.getId());
+            if (epic != null) {
+                epic.setName(task.getName());
+                epic.setDescription(task.getDescription());
+                textIndex.update(epic);
+                return;
+            }
+        }
+        if (existing == null) {
+            addTask(task, this);
+            return;
+        }
+
+        Epic parent = null;
+        if (existing instanceof Subtask) {
+            parent = epics.get(((Subtask) existing).getEpicId());
+        }
+        if (parent != null) {
+            parent.removeSubtaskStats((Subtask) existing);
+        }
+
+        removeFromIndexes(existing);
+        existing.setName(task.getName());
+        existing.setDescription(task.getDescription());
+        existing.setStatus(task.getStatus());
+        existing.setStartTime(task.getStartTime().orElse(null));
+        existing.setDuration(task.getDuration().orElse(null));
+        addToIndexes(existing);
+
+        if (parent != null) {
+            parent.addSubtaskStats((Subtask) existing);
+            epicStatuses.update(parent);
+        }
+    }
+
+    private void replayRemove(int id) {
+        if (tasks.containsKey(id)) {
+            super.removeTask(id);
+        } else if (epics.containsKey(id)) {
+            super.removeEpic(id);
+        } else if (subtasks.containsKey(id)) {
+            super.removeSubtask(id);
+        }
+    }
+
+    private void replayRemoveAll(String type) {
+        switch (type) {
+            case "Task":
+                super.removeAllTask();
+                break;
+            case "Epic":
+                super.removeAllEpic();
+                break;
+            case "Subtask":
+                super.removeAllSubtask();
+                break;
+        }
+    }
+
+    private void replayView(int id) {
+        if (tasks.containsKey(id)) {
+            super.getTask(id);
+        } else if (epics.containsKey(id)) {
+            super.getEpic(id);
+        } else if (subtasks.containsKey(id)) {
+            super.getSubtask(id);
+        }
+    }
+
+    private void replay(String value) {
+        int separator = value.indexOf(',');
+        JournalOperation operation = JournalOperation.valueOf(value.substring(0, separator));
+        String payload = value.substring(separator + 1);
+
+        switch (operation) {
+            case PUT:
+                Task task = format == SnapshotFormat.BINARY ? BinarySnapshot.decode(payload) : taskFromString(payload);
+                if (task != null) {
+                    replayPut(task);
                 }
-                if (s != null) {
-                    fm.historyManager.add(s);
+                break;
+            case REMOVE:
+                replayRemove(Integer.parseInt(payload));
+                break;
+            case REMOVE_ALL:
+                replayRemoveAll(payload);
+                break;
+            case VIEW:
+                replayView(Integer.parseInt(payload));
+                break;
+        }
+    }
+
+    private int replayJournal(File file) throws ManagerSaveException {
+        int size = 0;
+        if (!file.exists()) {
+            return size;
+        }
+
+        byte[] content;
+        try {
+            content = Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            throw new ManagerSaveException("При чтении журнала произошла ошибка: " + e.getMessage());
+        }
+
+        int start = 0;
+        while (start < content.length) {
+            int end = start;
+            while (end < content.length && content[end] != '\n') {
+                end++;
+            }
+            if (end == content.length) {
+                // the last append was cut short before its line break
+                truncateJournal(file, start);
+                break;
+            }
+
+            String str = new String(content, start, end - start, StandardCharsets.UTF_8);
+            if (str.isEmpty()) {
+                break;
+            }
+            try {
+                replay(str);
+            } catch (RuntimeException e) {
+                if (end + 1 < content.length) {
+                    throw new ManagerSaveException("Повреждённая запись журнала " + file.getPath() + ": " + str);
                 }
+                truncateJournal(file, start);
+                break;
             }
+            size++;
+            start = end + 1;
+        }
+        return size;
+    }
+
+    private void truncateJournal(File file, long length) throws ManagerSaveException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось обрезать журнал " + file.getPath() + ": " + e.getMessage());
         }
     }
 
     static FileBackedTaskManager loadFromFile(File file) {
-        FileBackedTaskManager fm = new FileBackedTaskManager(file);
+        return load(file, false);
+    }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
+    static FileBackedTaskManager loadFromFileParallel(File file) {
+        return load(file, true);
+    }
 
-            int lastTaskId = 0;
+    private static FileBackedTaskManager load(File file, boolean parallel) {
+        FileBackedTaskManager fm;
+        if (BinarySnapshot.isBinary(file)) {
+            fm = new FileBackedTaskManager(file, SnapshotFormat.BINARY);
+            loadBinary(file, fm);
+        } else if (parallel) {
+            fm = new FileBackedTaskManager(file);
+            loadCsvParallel(file, fm);
+        } else {
+            fm = new FileBackedTaskManager(file);
+            loadCsv(file, fm);
+        }
+
+        fm.journalSize = fm.replayJournal(fm.journal);
+        fm.historyJournalSize = fm.replayJournal(fm.historyJournal);
+
+        return fm;
+    }
+
+    private static void loadBinary(File file, FileBackedTaskManager fm) {
+        try {
+            BinarySnapshot.read(file, task -> addTask(task, fm), id -> addHistoryTask(id, fm));
+        } catch (IOException e) {
+            throw new ManagerSaveException("При чтении задач произошшла ошибка: " + e.getMessage());
+        }
+    }
 
-            br.readLine(); // read header
-            String str;
-            while ((str = br.readLine()) != null && (!str.equals(""))) {
-                Task task = fm.taskFromString(str);
+    private static void loadCsv(File file, FileBackedTaskManager fm) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new ManagerSaveException("Файл " + file.getPath() + " слишком большой для отображения в память");
+            }
+            // the lines are parsed from the verified mapping, so the checksum covers exactly what is loaded
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int limit = (int) size;
+            verifyCsvChecksum(buffer, limit, file);
+
+            int position = nextLine(buffer, 0, limit);
+            while (position < limit && buffer.get(position) != '\n') {
+                int lineEnd = nextLine(buffer, position, limit);
+                int contentEnd = buffer.get(lineEnd - 1) == '\n' ? lineEnd - 1 : lineEnd;
+                Task task = taskFromString(decode(buffer, position, contentEnd));
                 if (task != null) {
                     addTask(task, fm);
-
-                    int taskId = task.getId();
-                    if (taskId > lastTaskId) {
-                        lastTaskId = taskId;
-                    }
                 }
+                position = lineEnd;
             }
 
-            fm.cntId = lastTaskId + 1;
+            if (position < limit) {
+                int historyStart = position + 1;
+                addHistoryTask(decode(buffer, historyStart, nextLine(buffer, historyStart, limit)).strip(), fm);
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("При чтении задач произошшла ошибка: " + e.getMessage());
+        }
+    }
 
-            String history = br.readLine();
-            addHistoryTask(history, fm);
+    private static void loadCsvParallel(File file, FileBackedTaskManager fm) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new ManagerSaveException("Файл " + file.getPath() + " слишком большой для отображения в память");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int limit = (int) size;
+            verifyCsvChecksum(buffer, limit, file);
+
+            int start = nextLine(buffer, 0, limit);
+            int end = start;
+            while (end < limit && buffer.get(end) != '\n') {
+                end = nextLine(buffer, end, limit);
+            }
 
+            List<ForkJoinTask<List<Task>>> parsers = new ArrayList<>();
+            int chunks = Math.min(ForkJoinPool.getCommonPoolParallelism() * 4, (end - start) / MIN_CHUNK_SIZE + 1);
+            int from = start;
+            for (int i = 1; i <= chunks; i++) {
+                int to = i == chunks ? end : lineStart(buffer, start + (int) ((long) (end - start) * i / chunks), end);
+                if (to > from) {
+                    int chunkFrom = from;
+                    parsers.add(ForkJoinTask.adapt(() -> parseChunk(buffer, chunkFrom, to)));
+                }
+                from = Math.max(from, to);
+            }
+            ForkJoinTask.invokeAll(parsers);
+
+            for (ForkJoinTask<List<Task>> parser : parsers) {
+                for (Task task : parser.join()) {
+                    addTask(task, fm);
+                }
+            }
+
+            if (end < limit) {
+                int historyStart = end + 1;
+                int historyEnd = nextLine(buffer, historyStart, limit);
+                String history = decode(buffer, historyStart, historyEnd).strip();
+                addHistoryTask(history.isEmpty() ? null : history, fm);
+            }
         } catch (IOException e) {
             throw new ManagerSaveException("При чтении задач произошшла ошибка: " + e.getMessage());
         }
+    }
 
-        return fm;
+    private static void verifyCsvChecksum(ByteBuffer buffer, int limit, File file) {
+        int footer = limit;
+        while (footer > 0 && buffer.get(footer - 1) != '\n') {
+            footer--;
+        }
+        if (footer == 0) {
+            return;
+        }
+        String footerLine = decode(buffer, footer, limit);
+        if (!footerLine.startsWith(CSV_CHECKSUM_PREFIX)) {
+            return;
+        }
+
+        String checksum = footerLine.substring(CSV_CHECKSUM_PREFIX.length()).strip();
+        try {
+            if (SnapshotBuffer.checksum(buffer.slice(0, footer - 1)) == Integer.parseUnsignedInt(checksum, 16)) {
+                return;
+            }
+        } catch (NumberFormatException e) {
+            // treated as a checksum mismatch below
+        }
+        throw new ManagerSaveException("Контрольная сумма снимка " + file.getPath() + " не совпадает");
+    }
+
+    private static List<Task> parseChunk(MappedByteBuffer buffer, int from, int to) {
+        String chunk = decode(buffer, from, to);
+        List<Task> parsed = new ArrayList<>();
+
+        int lineStart = 0;
+        while (lineStart < chunk.length()) {
+            int lineEnd = chunk.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = chunk.length();
+            }
+            Task task = taskFromString(chunk.substring(lineStart, lineEnd));
+            if (task != null) {
+                parsed.add(task);
+            }
+            lineStart = lineEnd + 1;
+        }
+        return parsed;
+    }
+
+    private static String decode(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int nextLine(MappedByteBuffer buffer, int position, int limit) {
+        while (position < limit && buffer.get(position) != '\n') {
+            position++;
+        }
+        return Math.min(position + 1, limit);
+    }
+
+    private static int lineStart(MappedByteBuffer buffer, int position, int limit) {
+        if (buffer.get(position - 1) == '\n') {
+            return position;
+        }
+        return nextLine(buffer, position, limit);
     }
 
     @Override
     public int createTask(Task task) throws TaskHasInteractionException {
         int id = super.createTask(task);
-        save();
+        record(JournalOperation.PUT, encode(task));
         return id;
     }
 
+    @Override
+    public List<Integer> applyBatch(List<BatchOperation> operations) throws TaskNotFoundException,
+            TaskHasInteractionException, EpicMatchException, EpicIllegalArgumentException {
+
+        synchronized (pending) {
+            batching = true;
+            try {
+                return super.applyBatch(operations);
+            } finally {
+                batching = false;
+                finishBatch();
+            }
+        }
+    }
+
     @Override
     public int createEpic(Epic epic) throws EpicIllegalArgumentException {
         int id = super.createEpic(epic);
-        save();
+        record(JournalOperation.PUT, encode(epic));
         return id;
     }
 
     @Override
     public int createSubtask(Subtask subtask) throws TaskNotFoundException, TaskHasInteractionException {
         int id = super.createSubtask(subtask);
-        save();
+        record(JournalOperation.PUT, encode(subtask));
         return id;
     }
 
     @Override
     public void removeTask(int id) throws TaskNotFoundException {
         super.removeTask(id);
-        save();
+        record(JournalOperation.REMOVE, String.valueOf(id));
     }
 
     @Override
     public void removeEpic(int id) throws TaskNotFoundException {
         super.removeEpic(id);
-        save();
+        record(JournalOperation.REMOVE, String.valueOf(id));
     }
 
     @Override
     public void removeSubtask(int id) throws TaskNotFoundException {
         super.removeSubtask(id);
-        save();
+        record(JournalOperation.REMOVE, String.valueOf(id));
     }
 
     @Override
     public void removeAllTask() {
         super.removeAllTask();
-        save();
+        record(JournalOperation.REMOVE_ALL, Task.class.getSimpleName());
     }
 
     @Override
     public void removeAllSubtask() {
         super.removeAllSubtask();
-        save();
+        record(JournalOperation.REMOVE_ALL, Subtask.class.getSimpleName());
     }
 
     @Override
     public void removeAllEpic() {
         super.removeAllEpic();
-        save();
+        record(JournalOperation.REMOVE_ALL, Epic.class.getSimpleName());
     }
 
     @Override
     public void updateTask(Task newTask) throws TaskNotFoundException, TaskHasInteractionException {
         super.updateTask(newTask);
-        save();
+        record(JournalOperation.PUT, encode(tasks.get(newTask.getId())));
     }
 
     @Override
     public void updateEpic(Epic newEpic) throws TaskNotFoundException {
         super.updateEpic(newEpic);
-        save();
+        record(JournalOperation.PUT, encode(epics.get(newEpic.getId())));
     }
 
     @Override
@@ -247,27 +816,34 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
             throws TaskNotFoundException, TaskHasInteractionException, EpicMatchException {
 
         super.updateSubtask(newSubtask);
-        save();
+        record(JournalOperation.PUT, encode(subtasks.get(newSubtask.getId())));
     }
 
     @Override
     public Task getTask(int id) throws TaskNotFoundException {
         Task t = super.getTask(id);
-        save();
+        recordView(id);
         return t;
     }
 
     @Override
     public Epic getEpic(int id) throws TaskNotFoundException {
         Epic e = super.getEpic(id);
-        save();
+        recordView(id);
         return e;
     }
 
     @Override
     public Subtask getSubtask(int id) throws TaskNotFoundException {
         Subtask s = super.getSubtask(id);
-        save();
+        recordView(id);
         return s;
     }
+
+    private enum JournalOperation {
+        PUT,
+        REMOVE,
+        REMOVE_ALL,
+        VIEW
+    }
 }
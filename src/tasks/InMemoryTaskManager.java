@@ -11,17 +11,50 @@ import history.HistoryManager;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class InMemoryTaskManager implements TaskManager {
 
-    protected final HashMap<Integer, Task> tasks = new HashMap<>();
-    protected final HashMap<Integer, Subtask> subtasks = new HashMap<>();
-    protected final HashMap<Integer, Epic> epics = new HashMap<>();
-    protected final HistoryManager historyManager = Manager.getDefaultHistory();
-    protected final SortedSet<Task> prioritizedTasks = new TreeSet<>(Comparator.comparing(t -> t.getStartTime().orElseThrow()));
+    protected final Map<Integer, Task> tasks;
+    protected final Map<Integer, Subtask> subtasks;
+    protected final Map<Integer, Epic> epics;
+    protected final HistoryManager historyManager;
+    protected final NavigableSet<Task> prioritizedTasks = new TreeSet<>(Comparator
+            .comparing((Task t) -> t.getStartTime().orElseThrow())
+            .thenComparingInt(Task::getId));
+    protected final TaskIntervalTree timeIndex = new TaskIntervalTree();
+    protected final BitSet taskIds = new BitSet();
+    protected final BitSet subtaskIds = new BitSet();
+    protected final BitSet epicIds = new BitSet();
+    protected final StatusIndex taskStatuses = new StatusIndex();
+    protected final StatusIndex subtaskStatuses = new StatusIndex();
+    protected final StatusIndex epicStatuses = new StatusIndex();
+    protected final TextIndex textIndex = new TextIndex();
+    protected final TaskEventPublisher events = new TaskEventPublisher();
+    private final AtomicLong historyChanges = new AtomicLong();
+    private volatile long tasksVersion;
+    private volatile long epicsVersion;
+    private volatile long subtasksVersion;
     protected int cntId = 1;
 
+    public InMemoryTaskManager() {
+        this(new HashMap<>(), new HashMap<>(), new HashMap<>(), Manager.getDefaultHistory());
+    }
+
+    public InMemoryTaskManager(Map<Integer, Task> tasks,
+                               Map<Integer, Subtask> subtasks,
+                               Map<Integer, Epic> epics,
+                               HistoryManager historyManager) {
+        this.tasks = tasks;
+        this.subtasks = subtasks;
+        this.epics = epics;
+        this.historyManager = historyManager;
+    }
+
+    protected int nextId() {
+        return cntId++;
+    }
+
     @Override
     public List<Task> getHistory() {
         return new ArrayList<>(historyManager.getHistory());
@@ -48,32 +81,159 @@ public class InMemoryTaskManager implements TaskManager {
     }
 
     @Override
-    public int createTask(Task task) throws TaskHasInteractionException {
-        if (!checkTaskTime(task)) {
-            throw new TaskHasInteractionException();
+    public Collection<Task> getHistoryView() {
+        return historyManager.getHistoryView();
+    }
+
+    @Override
+    public Collection<Epic> getEpicsView() {
+        return Collections.unmodifiableCollection(epics.values());
+    }
+
+    @Override
+    public Collection<Task> getTasksView() {
+        return Collections.unmodifiableCollection(tasks.values());
+    }
+
+    @Override
+    public Collection<Subtask> getSubtasksView() {
+        return Collections.unmodifiableCollection(subtasks.values());
+    }
+
+    @Override
+    public SortedSet<Task> getPrioritizedTasksView() {
+        return Collections.unmodifiableSortedSet(prioritizedTasks);
+    }
+
+    @Override
+    public List<Task> getTasksPage(int afterId, int limit) {
+        return page(tasks, taskIds, afterId, limit);
+    }
+
+    @Override
+    public List<Epic> getEpicsPage(int afterId, int limit) {
+        return page(epics, epicIds, afterId, limit);
+    }
+
+    @Override
+    public List<Subtask> getSubtasksPage(int afterId, int limit) {
+        return page(subtasks, subtaskIds, afterId, limit);
+    }
+
+    @Override
+    public List<Task> getTasksByStatus(Status status) {
+        return getTasksByStatusPage(status, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Epic> getEpicsByStatus(Status status) {
+        return getEpicsByStatusPage(status, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Subtask> getSubtasksByStatus(Status status) {
+        return getSubtasksByStatusPage(status, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> getTasksByStatusPage(Status status, int afterId, int limit) {
+        return page(tasks, taskStatuses.ids(status), afterId, limit);
+    }
+
+    @Override
+    public List<Epic> getEpicsByStatusPage(Status status, int afterId, int limit) {
+        return page(epics, epicStatuses.ids(status), afterId, limit);
+    }
+
+    @Override
+    public List<Subtask> getSubtasksByStatusPage(Status status, int afterId, int limit) {
+        return page(subtasks, subtaskStatuses.ids(status), afterId, limit);
+    }
+
+    @Override
+    public List<Integer> search(String query, int limit) {
+        return textIndex.search(query, limit);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksPage(Instant after, int afterId, int limit) {
+        SortedSet<Task> tail = prioritizedTasks;
+        if (after != null) {
+            // start times are not unique, so the cursor is the (startTime, id) of the last task seen
+            tail = prioritizedTasks.tailSet(timeBound(after, afterId), false);
         }
-        task.setId(cntId);
+        return first(tail, limit);
+    }
 
-        tasks.put(cntId, task);
-        task.getStartTime().ifPresent(i -> prioritizedTasks.add(task));
+    @Override
+    public List<Task> getTasksBetween(Instant from, Instant to) {
+        return getTasksBetween(from, to, Integer.MAX_VALUE);
+    }
 
-        cntId++;
+    @Override
+    public List<Task> getTasksBetween(Instant from, Instant to, int limit) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Начало диапазона позже его конца: " + from + " > " + to);
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Размер выборки должен быть положительным: " + limit);
+        }
 
-        return task.getId();
+        List<Task> range = new ArrayList<>();
+        if (from.equals(to)) {
+            return range;
+        }
+
+        int left = timeIndex.forEachCovering(from, limit,
+                id -> range.add(tasks.containsKey(id) ? tasks.get(id) : subtasks.get(id)));
+        if (left > 0) {
+            range.addAll(first(prioritizedTasks.subSet(timeBound(from, Integer.MIN_VALUE),
+                    timeBound(to, Integer.MIN_VALUE)), left));
+        }
+        return range;
     }
 
     @Override
-    public int createEpic(Epic epic) throws EpicIllegalArgumentException {
-        int epicSubtasksSize = epic.getSubtasks().size();
-        if (epicSubtasksSize > 0) {
-            throw new EpicIllegalArgumentException("Эпик имеет " + epicSubtasksSize + " подздач. Ожидалось 0");
+    public List<Task> getNextTasks(Instant after, int limit) {
+        return first(prioritizedTasks.tailSet(timeBound(after, Integer.MIN_VALUE)), limit);
+    }
+
+    @Override
+    public Instant findFreeSlot(Duration duration, Instant notBefore) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Длительность задачи должна быть положительной: " + duration);
         }
-        epic.setId(cntId);
-        epics.put(cntId, epic);
+        return timeIndex.findFreeSlot(duration, notBefore);
+    }
 
-        cntId++;
+    @Override
+    public int createTask(Task task) throws TaskHasInteractionException {
+        if (!checkTaskTime(task)) {
+            throw new TaskHasInteractionException();
+        }
+        int id = nextId();
+        task.setId(id);
+
+        tasks.put(id, task);
+        taskIds.set(id);
+        addToIndexes(task);
+        publish(TaskEvent.Type.CREATED, task);
 
-        return epic.getId();
+        return id;
+    }
+
+    @Override
+    public int createEpic(Epic epic) throws EpicIllegalArgumentException {
+        checkNewEpic(epic);
+        int id = nextId();
+        epic.setId(id);
+        epics.put(id, epic);
+        epicIds.set(id);
+        epicStatuses.update(epic);
+        textIndex.update(epic);
+        publish(TaskEvent.Type.CREATED, epic);
+
+        return id;
     }
 
     @Override
@@ -88,19 +248,84 @@ public class InMemoryTaskManager implements TaskManager {
             throw new TaskHasInteractionException();
         }
 
-        subtask.setId(cntId);
+        int id = nextId();
+        subtask.setId(id);
+
+        subtasks.put(id, subtask);
+        subtaskIds.set(id);
+        addToIndexes(subtask);
+        publish(TaskEvent.Type.CREATED, subtask);
+
+        epic.addSubtask(subtask);
+        recalculated(epic);
+
+        return id;
+    }
+
+    @Override
+    public List<Integer> createTasks(List<Task> newTasks) throws TaskHasInteractionException {
+        List<BatchOperation> operations = new ArrayList<>(newTasks.size());
+        for (Task task : newTasks) {
+            operations.add(new BatchOperation(BatchOperation.Action.CREATE, task));
+        }
+        return applyBatch(operations);
+    }
+
+    @Override
+    public List<Integer> createSubtasks(List<Subtask> newSubtasks)
+            throws TaskNotFoundException, TaskHasInteractionException {
 
-        subtasks.put(cntId, subtask);
-        subtask.getStartTime().ifPresent(i -> prioritizedTasks.add(subtask));
+        List<BatchOperation> operations = new ArrayList<>(newSubtasks.size());
+        for (Subtask subtask : newSubtasks) {
+            operations.add(new BatchOperation(BatchOperation.Action.CREATE, subtask));
+        }
+        return applyBatch(operations);
+    }
 
+    @Override
+    public List<Integer> applyBatch(List<BatchOperation> operations) throws TaskNotFoundException,
+            TaskHasInteractionException, EpicMatchException, EpicIllegalArgumentException {
 
-        epic.addSubtaskId(cntId);
-        calculateEpicStatus(epic);
-        calculateEpicDuration(epic);
+        new BatchValidation().validate(operations);
 
-        cntId++;
+        List<Integer> ids = new ArrayList<>(operations.size());
+        for (BatchOperation operation : operations) {
+            ids.add(apply(operation));
+        }
+        return ids;
+    }
 
-        return subtask.getId();
+    private int apply(BatchOperation operation) {
+        Task task = operation.getTask();
+        switch (operation.getAction()) {
+            case CREATE:
+                if (task instanceof Epic) {
+                    return createEpic((Epic) task);
+                }
+                if (task instanceof Subtask) {
+                    return createSubtask((Subtask) task);
+                }
+                return createTask(task);
+            case UPDATE:
+                if (task instanceof Epic) {
+                    updateEpic((Epic) task);
+                } else if (task instanceof Subtask) {
+                    updateSubtask((Subtask) task);
+                } else {
+                    updateTask(task);
+                }
+                return task.getId();
+            default:
+                int id = operation.getId();
+                if (epics.containsKey(id)) {
+                    removeEpic(id);
+                } else if (subtasks.containsKey(id)) {
+                    removeSubtask(id);
+                } else {
+                    removeTask(id);
+                }
+                return id;
+        }
     }
 
     @Override
@@ -109,7 +334,7 @@ public class InMemoryTaskManager implements TaskManager {
         if (task == null) {
             throw new TaskNotFoundException("Задачи", id);
         }
-        historyManager.add(task);
+        addToHistory(task);
         return task;
     }
 
@@ -119,7 +344,7 @@ public class InMemoryTaskManager implements TaskManager {
         if (epic == null) {
             throw new TaskNotFoundException("Эпика", id);
         }
-        historyManager.add(epic);
+        addToHistory(epic);
 
         return epic;
 
@@ -131,7 +356,7 @@ public class InMemoryTaskManager implements TaskManager {
         if (subtask == null) {
             throw new TaskNotFoundException("Подзадачи", id);
         }
-        historyManager.add(subtask);
+        addToHistory(subtask);
 
         return subtask;
     }
@@ -142,8 +367,10 @@ public class InMemoryTaskManager implements TaskManager {
         if (removedTask == null) {
             throw new TaskNotFoundException("Задачи", id);
         }
-        removedTask.getStartTime().ifPresent(i -> prioritizedTasks.remove(removedTask));
-        historyManager.remove(id);
+        taskIds.clear(id);
+        removeFromIndexes(removedTask);
+        removeFromHistory(id);
+        publish(TaskEvent.Type.REMOVED, removedTask);
     }
 
     @Override
@@ -152,14 +379,20 @@ public class InMemoryTaskManager implements TaskManager {
         if (removedEpic == null) {
             throw new TaskNotFoundException("Эпика", id);
         }
+        epicIds.clear(id);
+        epicStatuses.remove(id);
+        textIndex.remove(id);
 
-        removedEpic.getSubtasks().forEach(i -> {
+        removedEpic.forEachSubtaskId(i -> {
             Subtask removedSubtask = subtasks.remove(i);
-            removedSubtask.getStartTime().ifPresent(inst -> prioritizedTasks.remove(removedSubtask));
-            historyManager.remove(i);
+            subtaskIds.clear(i);
+            removeFromIndexes(removedSubtask);
+            removeFromHistory(i);
+            publish(TaskEvent.Type.REMOVED, removedSubtask);
         });
 
-        historyManager.remove(id);
+        removeFromHistory(id);
+        publish(TaskEvent.Type.REMOVED, removedEpic);
 
     }
 
@@ -169,56 +402,63 @@ public class InMemoryTaskManager implements TaskManager {
         if (removedSubtask == null) {
             throw new TaskNotFoundException("Подзадачи", id);
         }
+        subtaskIds.clear(id);
 
         Epic epic = epics.get(removedSubtask.getEpicId());
-        epic.removeSubtask(id);
-        calculateEpicStatus(epic);
-        calculateEpicDuration(epic);
+        epic.removeSubtask(removedSubtask);
 
-
-        removedSubtask.getStartTime().ifPresent(i -> prioritizedTasks.remove(removedSubtask));
-        historyManager.remove(id);
+        removeFromIndexes(removedSubtask);
+        removeFromHistory(id);
+        publish(TaskEvent.Type.REMOVED, removedSubtask);
+        recalculated(epic);
 
     }
 
     @Override
     public void removeAllTask() {
         tasks.values().forEach(t -> {
-            t.getStartTime().ifPresent(i -> prioritizedTasks.remove(t));
-            historyManager.remove(t.getId());
+            removeFromIndexes(t);
+            removeFromHistory(t.getId());
+            publish(TaskEvent.Type.REMOVED, t);
         });
         tasks.clear();
+        taskIds.clear();
     }
 
     @Override
     public void removeAllSubtask() {
         epics.values().forEach(epic -> {
-            epic.getSubtasks().forEach(i -> {
+            epic.forEachSubtaskId(i -> {
                 Subtask removedSubtask = subtasks.remove(i);
-                removedSubtask.getStartTime().ifPresent(inst -> prioritizedTasks.remove(removedSubtask));
-                historyManager.remove(i);
+                removeFromIndexes(removedSubtask);
+                removeFromHistory(i);
+                publish(TaskEvent.Type.REMOVED, removedSubtask);
             });
             epic.removeAllSubtasks();
-            epic.setStatus(Status.NEW);
-            epic.setEndTime(null);
-            epic.setStartTime(null);
-            epic.setDuration(null);
+            recalculated(epic);
         });
         subtasks.clear();
+        subtaskIds.clear();
     }
 
     @Override
     public void removeAllEpic() {
         epics.values().forEach(e -> {
-            e.getSubtasks().forEach(i -> {
+            e.forEachSubtaskId(i -> {
                 Subtask removedSubtask = subtasks.remove(i);
-                removedSubtask.getStartTime().ifPresent(inst -> prioritizedTasks.remove(removedSubtask));
-                historyManager.remove(i);
+                removeFromIndexes(removedSubtask);
+                removeFromHistory(i);
+                publish(TaskEvent.Type.REMOVED, removedSubtask);
             });
-            historyManager.remove(e.getId());
+            removeFromHistory(e.getId());
+            textIndex.remove(e.getId());
+            publish(TaskEvent.Type.REMOVED, e);
         });
         subtasks.clear();
         epics.clear();
+        subtaskIds.clear();
+        epicIds.clear();
+        epicStatuses.clear();
     }
 
     @Override
@@ -227,9 +467,9 @@ public class InMemoryTaskManager implements TaskManager {
         if (epic == null) {
             throw new TaskNotFoundException("Эпика", epicId);
         }
-        return epic.getSubtasks().stream()
-                .map(subtasks::get)
-                .collect(Collectors.toList());
+        List<Subtask> epicSubtasks = new ArrayList<>(epic.getSubtasksCount());
+        epic.forEachSubtaskId(i -> epicSubtasks.add(subtasks.get(i)));
+        return epicSubtasks;
     }
 
     @Override
@@ -259,11 +499,12 @@ public class InMemoryTaskManager implements TaskManager {
         if (status != null) {
             task.setStatus(status);
         }
+
+        removeFromIndexes(task);
         duration.ifPresent(task::setDuration);
-        startTime.ifPresent(i -> {
-            task.setStartTime(i);
-            prioritizedTasks.add(task);
-        });
+        startTime.ifPresent(task::setStartTime);
+        addToIndexes(task);
+        publish(TaskEvent.Type.UPDATED, task);
     }
 
     @Override
@@ -284,6 +525,8 @@ public class InMemoryTaskManager implements TaskManager {
         if (description != null) {
             epic.setDescription(description);
         }
+        textIndex.update(epic);
+        publish(TaskEvent.Type.UPDATED, epic);
     }
 
     @Override
@@ -309,6 +552,9 @@ public class InMemoryTaskManager implements TaskManager {
         Optional<Duration> duration = newSubtask.getDuration();
         Optional<Instant> startTime = newSubtask.getStartTime();
 
+        Epic epic = epics.get(subtask.getEpicId());
+        epic.removeSubtaskStats(subtask);
+
         if (name != null) {
             subtask.setName(name);
         }
@@ -318,73 +564,78 @@ public class InMemoryTaskManager implements TaskManager {
         if (status != null) {
             subtask.setStatus(status);
         }
+
+        removeFromIndexes(subtask);
         duration.ifPresent(subtask::setDuration);
-        startTime.ifPresent(i -> {
-            subtask.setStartTime(i);
-            prioritizedTasks.add(subtask);
-        });
+        startTime.ifPresent(subtask::setStartTime);
+        addToIndexes(subtask);
+        publish(TaskEvent.Type.UPDATED, subtask);
 
-        Epic epic = epics.get(subtask.getEpicId());
-        calculateEpicStatus(epic);
-        calculateEpicDuration(epic);
+        epic.addSubtaskStats(subtask);
+        recalculated(epic);
+    }
 
+    @Override
+    public void addEventListener(TaskEventListener listener) {
+        events.subscribe(listener);
+    }
 
+    @Override
+    public void removeEventListener(TaskEventListener listener) {
+        events.unsubscribe(listener);
     }
 
-    private void calculateEpicStatus(Epic epic) {
+    @Override
+    public long getTasksVersion() {
+        return tasksVersion;
+    }
 
-        List<Integer> subtasksId = epic.getSubtasks();
+    @Override
+    public long getEpicsVersion() {
+        return epicsVersion;
+    }
 
-        if (subtasksId.isEmpty()) {
-            epic.setStatus(Status.NEW);
-            return;
-        }
+    @Override
+    public long getSubtasksVersion() {
+        return subtasksVersion;
+    }
 
-        boolean isAllSubtasksNew = true;
-        boolean isAllSubtasksDone = true;
-        for (int subtaskId : subtasksId) {
-            Status status = subtasks.get(subtaskId).getStatus();
-            if (status != Status.NEW) {
-                isAllSubtasksNew = false;
-            }
-            if (status != Status.DONE) {
-                isAllSubtasksDone = false;
-            }
-        }
+    @Override
+    public long getPrioritizedTasksVersion() {
+        return Math.max(tasksVersion, subtasksVersion);
+    }
 
-        if (isAllSubtasksDone) {
-            epic.setStatus(Status.DONE);
-        } else if (isAllSubtasksNew) {
-            epic.setStatus(Status.NEW);
-        } else {
-            epic.setStatus(Status.IN_PROGRESS);
-        }
+    @Override
+    public long getHistoryVersion() {
+        // both terms only grow, so the sum changes whenever the order or any viewed task changes
+        return historyChanges.get() + Math.max(tasksVersion, Math.max(epicsVersion, subtasksVersion));
     }
 
-    private void calculateEpicDuration(Epic epic) {
-        List<Integer> subtasksId = epic.getSubtasks();
-        Instant startTime = Instant.MAX;
-        Instant endTime = Instant.MIN;
-        Duration duration = Duration.ZERO;
+    private void addToHistory(Task task) {
+        historyManager.add(task);
+        historyChanges.incrementAndGet();
+    }
 
-        for (int subtaskId : subtasksId) {
-            Subtask subtask = subtasks.get(subtaskId);
-            Duration subtaskDuration = subtask.getDuration().orElse(duration);
-            Instant subtaskStartTime = subtask.getStartTime().orElse(startTime);
-            Instant subtaskEndTime = subtask.getEndTime().orElse(endTime);
+    private void removeFromHistory(int id) {
+        historyManager.remove(id);
+        historyChanges.incrementAndGet();
+    }
 
-            if (subtaskStartTime.isBefore(startTime)) {
-                startTime = subtaskStartTime;
-            }
-            if (subtaskEndTime.isAfter(endTime)) {
-                endTime = subtaskEndTime;
-            }
-            duration = duration.plus(subtaskDuration);
-        }
+    private void recalculated(Epic epic) {
+        epicStatuses.update(epic);
+        publish(TaskEvent.Type.EPIC_RECALCULATED, epic);
+    }
 
-        epic.setDuration(duration.equals(Duration.ZERO) ? null : duration);
-        epic.setStartTime(startTime.equals(Instant.MAX) ? null : startTime);
-        epic.setEndTime(endTime.equals(Instant.MIN) ? null : endTime);
+    private void publish(TaskEvent.Type type, Task task) {
+        long version = events.publish(type, task);
+        task.setVersion(version);
+        if (task instanceof Epic) {
+            epicsVersion = version;
+        } else if (task instanceof Subtask) {
+            subtasksVersion = version;
+        } else {
+            tasksVersion = version;
+        }
     }
 
     public boolean isIntersect(Task task, Task otherTask) {
@@ -407,13 +658,182 @@ public class InMemoryTaskManager implements TaskManager {
         }
     }
 
+    private static void checkNewEpic(Epic epic) {
+        int epicSubtasksSize = epic.getSubtasksCount();
+        if (epicSubtasksSize > 0) {
+            throw new EpicIllegalArgumentException("Эпик имеет " + epicSubtasksSize + " подздач. Ожидалось 0");
+        }
+    }
+
     private boolean checkTaskTime(Task task) {
         Optional<Duration> durationOpt = task.getDuration().filter(Duration::isNegative);
-        Optional<Task> invalidTaskOpt = prioritizedTasks.stream()
-                .filter(t -> t.getId() != task.getId())
-                .filter(t -> isIntersect(t, task))
-                .findFirst();
 
-        return durationOpt.isEmpty() && invalidTaskOpt.isEmpty();
+        return durationOpt.isEmpty() && !timeIndex.hasIntersection(task);
+    }
+
+    private static Task timeBound(Instant startTime, int id) {
+        return new Task(id, null, null, null, startTime, null);
+    }
+
+    private static List<Task> first(SortedSet<Task> tasks, int limit) {
+        List<Task> first = new ArrayList<>();
+        for (Task task : tasks) {
+            if (first.size() >= limit) {
+                break;
+            }
+            first.add(task);
+        }
+        return first;
+    }
+
+    private static <T extends Task> List<T> page(Map<Integer, T> items, BitSet ids, int afterId, int limit) {
+        List<T> page = new ArrayList<>();
+        if (afterId == Integer.MAX_VALUE) {
+            return page;
+        }
+
+        int id = ids.nextSetBit(Math.max(afterId + 1, 0));
+        while (id >= 0 && page.size() < limit) {
+            page.add(items.get(id));
+            id = id == Integer.MAX_VALUE ? -1 : ids.nextSetBit(id + 1);
+        }
+        return page;
+    }
+
+    protected void addToIndexes(Task task) {
+        task.getStartTime().ifPresent(i -> prioritizedTasks.add(task));
+        timeIndex.add(task);
+        statusesOf(task).update(task);
+        textIndex.update(task);
+    }
+
+    protected void removeFromIndexes(Task task) {
+        task.getStartTime().ifPresent(i -> prioritizedTasks.remove(task));
+        timeIndex.remove(task.getId());
+        statusesOf(task).remove(task.getId());
+        textIndex.remove(task.getId());
+    }
+
+    private StatusIndex statusesOf(Task task) {
+        return task instanceof Subtask ? subtaskStatuses : taskStatuses;
+    }
+
+    private class BatchValidation {
+
+        private final Map<Integer, Task> originals = new HashMap<>();
+        private final Map<Integer, Task> intervals = new HashMap<>();
+        private final Map<Integer, List<Integer>> createdSubtasks = new HashMap<>();
+        private final Set<Integer> removed = new HashSet<>();
+        private int createdId;
+
+        void validate(List<BatchOperation> operations) {
+            try {
+                for (BatchOperation operation : operations) {
+                    validate(operation);
+                }
+            } finally {
+                originals.forEach((id, original) -> {
+                    timeIndex.remove(id);
+                    if (original != null) {
+                        timeIndex.add(original);
+                    }
+                });
+            }
+        }
+
+        private void validate(BatchOperation operation) {
+            Task task = operation.getTask();
+            switch (operation.getAction()) {
+                case CREATE:
+                    validateCreate(task);
+                    break;
+                case UPDATE:
+                    validateUpdate(task);
+                    break;
+                default:
+                    validateDelete(operation.getId());
+            }
+        }
+
+        private void validateCreate(Task task) {
+            if (task instanceof Epic) {
+                checkNewEpic((Epic) task);
+                return;
+            }
+
+            int id = --createdId;
+            if (task instanceof Subtask) {
+                int epicId = ((Subtask) task).getEpicId();
+                if (find(epics, epicId) == null) {
+                    throw new TaskNotFoundException("Эпика", epicId);
+                }
+                createdSubtasks.computeIfAbsent(epicId, i -> new ArrayList<>()).add(id);
+            }
+            if (!checkTaskTime(task)) {
+                throw new TaskHasInteractionException();
+            }
+            place(id, task.getStartTime().orElse(null), task.getDuration().orElse(null));
+        }
+
+        private void validateUpdate(Task task) {
+            int id = task.getId();
+            if (task instanceof Epic) {
+                if (find(epics, id) == null) {
+                    throw new TaskNotFoundException("Эпика", id);
+                }
+                return;
+            }
+
+            Task current = task instanceof Subtask ? find(subtasks, id) : find(tasks, id);
+            if (current == null) {
+                throw new TaskNotFoundException(task instanceof Subtask ? "Подзадачи" : "Задачи", id);
+            }
+            if (!checkTaskTime(task)) {
+                throw new TaskHasInteractionException();
+            }
+            if (task instanceof Subtask && ((Subtask) current).getEpicId() != ((Subtask) task).getEpicId()) {
+                throw new EpicMatchException("Идентификаторы эпиков не совпадают");
+            }
+
+            Task base = intervals.getOrDefault(id, current);
+            place(id, task.getStartTime().or(base::getStartTime).orElse(null),
+                    task.getDuration().or(base::getDuration).orElse(null));
+        }
+
+        private void validateDelete(int id) {
+            Epic epic = find(epics, id);
+            if (epic == null && find(subtasks, id) == null && find(tasks, id) == null) {
+                throw new TaskNotFoundException("Задачи", id);
+            }
+
+            release(id);
+            if (epic != null) {
+                epic.forEachSubtaskId(this::release);
+                createdSubtasks.getOrDefault(id, List.of()).forEach(this::release);
+            }
+        }
+
+        private <T extends Task> T find(Map<Integer, T> items, int id) {
+            return removed.contains(id) ? null : items.get(id);
+        }
+
+        private void place(int id, Instant startTime, Duration duration) {
+            Task interval = new Task(id, null, null, null, startTime, duration);
+            remember(id);
+            intervals.put(id, interval);
+            timeIndex.add(interval);
+        }
+
+        private void release(int id) {
+            remember(id);
+            removed.add(id);
+            timeIndex.remove(id);
+        }
+
+        private void remember(int id) {
+            if (!originals.containsKey(id)) {
+                originals.put(id, tasks.containsKey(id) ? tasks.get(id) : subtasks.get(id));
+            }
+        }
     }
 }
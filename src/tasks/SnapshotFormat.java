@@ -0,0 +1,6 @@
+package tasks;
+
+public enum SnapshotFormat {
+    CSV,
+    BINARY
+}
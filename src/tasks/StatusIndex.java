@@ -0,0 +1,39 @@
+package tasks;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+
+class StatusIndex {
+
+    private final EnumMap<Status, BitSet> ids = new EnumMap<>(Status.class);
+
+    StatusIndex() {
+        for (Status status : Status.values()) {
+            ids.put(status, new BitSet());
+        }
+    }
+
+    void update(Task task) {
+        remove(task.getId());
+        Status status = task.getStatus();
+        if (status != null) {
+            ids.get(status).set(task.getId());
+        }
+    }
+
+    void remove(int id) {
+        for (BitSet statusIds : ids.values()) {
+            statusIds.clear(id);
+        }
+    }
+
+    void clear() {
+        for (BitSet statusIds : ids.values()) {
+            statusIds.clear();
+        }
+    }
+
+    BitSet ids(Status status) {
+        return ids.get(status);
+    }
+}
@@ -26,6 +26,13 @@ public class Subtask extends Task {
         return epicId;
     }
 
+    @Override
+    Subtask copy() {
+        Subtask copy = new Subtask(id, name, description, status, startTime, duration, epicId);
+        copy.setVersion(getVersion());
+        return copy;
+    }
+
     @Override
     public String toString() {
         return super.toString() + epicId;
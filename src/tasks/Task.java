@@ -12,6 +12,7 @@ public class Task {
     protected Status status;
     protected Duration duration;
     protected Instant startTime;
+    private transient long version;
 
     public Task(String name, String description) {
         this.name = name;
@@ -90,6 +91,20 @@ public class Task {
         return id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    void setVersion(long version) {
+        this.version = version;
+    }
+
+    Task copy() {
+        Task copy = new Task(id, name, description, status, startTime, duration);
+        copy.version = version;
+        return copy;
+    }
+
     public Optional<Duration> getDuration() {
         return Optional.ofNullable(duration);
     }
@@ -0,0 +1,66 @@
+package tasks;
+
+public class TaskEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        REMOVED,
+        EPIC_RECALCULATED
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final String taskType;
+    private final int id;
+    private final Task task;
+
+    TaskEvent(long sequence, Type type, Task task) {
+        this.sequence = sequence;
+        this.type = type;
+        this.taskType = task.getClass().getSimpleName();
+        this.id = task.getId();
+        this.task = type == Type.REMOVED ? null : snapshot(task);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getTaskType() {
+        return taskType;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    private static Task snapshot(Task task) {
+        String name = task.getName();
+        String description = task.getDescription();
+        Status status = task.getStatus();
+
+        if (task instanceof Epic) {
+            // membership is left out: copying it would make every subtask change linear in the epic size
+            Epic epic = (Epic) task;
+            Epic copy = new Epic(epic.getId(), name, description, status,
+                    epic.getStartTime().orElse(null), epic.getDuration().orElse(null));
+            copy.setEndTime(epic.getEndTime().orElse(null));
+            return copy;
+        }
+        if (task instanceof Subtask) {
+            return new Subtask(task.getId(), name, description, status, task.getStartTime().orElse(null),
+                    task.getDuration().orElse(null), ((Subtask) task).getEpicId());
+        }
+        return new Task(task.getId(), name, description, status, task.getStartTime().orElse(null),
+                task.getDuration().orElse(null));
+    }
+}
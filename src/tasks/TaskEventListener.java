@@ -0,0 +1,8 @@
+package tasks;
+
+public interface TaskEventListener {
+    void onEvent(TaskEvent event);
+
+    default void onSubscribe(long lastSequence) {
+    }
+}
@@ -0,0 +1,94 @@
+package tasks;
+
+import utils.exceptions.EventsTruncatedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class TaskEventLog implements TaskEventListener {
+
+    private final TaskEvent[] ring;
+    private int head;
+    private int size;
+    private long truncatedUpTo;
+    private long lastSequence;
+
+    public TaskEventLog(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Размер журнала событий должен быть положительным: " + capacity);
+        }
+        this.ring = new TaskEvent[capacity];
+    }
+
+    @Override
+    public synchronized void onSubscribe(long sequence) {
+        lastSequence = sequence;
+        truncatedUpTo = sequence;
+        head = 0;
+        size = 0;
+    }
+
+    @Override
+    public synchronized void onEvent(TaskEvent event) {
+        if (event.getSequence() <= lastSequence) {
+            return;
+        }
+        if (event.getSequence() != lastSequence + 1) {
+            // events dropped by the publisher on overflow can't be served either
+            truncatedUpTo = event.getSequence() - 1;
+            head = 0;
+            size = 0;
+        }
+        if (size == ring.length) {
+            truncatedUpTo = ring[head].getSequence();
+            head = (head + 1) % ring.length;
+            size--;
+        }
+        ring[(head + size) % ring.length] = event;
+        size++;
+        lastSequence = event.getSequence();
+        notifyAll();
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    public synchronized List<TaskEvent> poll(long after, int limit, long timeoutMillis)
+            throws InterruptedException {
+        if (after > lastSequence) {
+            throw new IllegalArgumentException("Событие с sequence=" + after + " ещё не опубликовано");
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long remaining = deadline - System.nanoTime();
+        while (lastSequence <= after && remaining > 0) {
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            remaining = deadline - System.nanoTime();
+        }
+        if (after < truncatedUpTo) {
+            throw new EventsTruncatedException(after, truncatedUpTo);
+        }
+
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (at(mid).getSequence() <= after) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+
+        List<TaskEvent> result = new ArrayList<>(Math.min(limit, size - lo));
+        for (int i = lo; i < size && result.size() < limit; i++) {
+            result.add(at(i));
+        }
+        return result;
+    }
+
+    private TaskEvent at(int index) {
+        return ring[(head + index) % ring.length];
+    }
+}
@@ -0,0 +1,78 @@
+package tasks;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+class TaskEventPublisher {
+
+    private static final int QUEUE_CAPACITY = 10_000;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    private static class Subscription implements Runnable {
+        final TaskEventListener listener;
+        final BlockingQueue<TaskEvent> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        final Thread thread;
+
+        Subscription(TaskEventListener listener) {
+            this.listener = listener;
+            this.thread = new Thread(this, "task-events");
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                TaskEvent event;
+                try {
+                    event = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    listener.onEvent(event);
+                } catch (RuntimeException e) {
+                    // a failing listener must not stop delivery of later events
+                }
+            }
+        }
+    }
+
+    long publish(TaskEvent.Type type, Task task) {
+        long seq = sequence.incrementAndGet();
+        if (subscriptions.isEmpty()) {
+            return seq;
+        }
+
+        TaskEvent event = new TaskEvent(seq, type, task);
+        for (Subscription subscription : subscriptions) {
+            // on overflow the event is dropped and the listener sees a gap in sequence numbers
+            subscription.queue.offer(event);
+        }
+        return seq;
+    }
+
+    long getSequence() {
+        return sequence.get();
+    }
+
+    void subscribe(TaskEventListener listener) {
+        Subscription subscription = new Subscription(listener);
+        subscriptions.add(subscription);
+        // a publish racing with the add may still deliver an event at or below this sequence
+        listener.onSubscribe(sequence.get());
+        subscription.thread.start();
+    }
+
+    void unsubscribe(TaskEventListener listener) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.listener == listener) {
+                subscriptions.remove(subscription);
+                subscription.thread.interrupt();
+            }
+        }
+    }
+}
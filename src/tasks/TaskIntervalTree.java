@@ -0,0 +1,267 @@
+package tasks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.function.IntConsumer;
+
+class TaskIntervalTree {
+
+    private final HashMap<Integer, Node> nodes = new HashMap<>();
+    private Node root;
+
+    private static class Node {
+        final int id;
+        final Instant start;
+        final Instant end;
+        Instant maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(int id, Instant start, Instant end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+
+    void add(Task task) {
+        Optional<Instant> start = task.getStartTime();
+        Optional<Instant> end = task.getEndTime();
+
+        remove(task.getId());
+        if (start.isEmpty() || end.isEmpty()) {
+            return;
+        }
+
+        Node node = new Node(task.getId(), start.get(), end.get());
+        root = insert(root, node);
+        nodes.put(node.id, node);
+    }
+
+    void remove(int id) {
+        Node node = nodes.remove(id);
+        if (node != null) {
+            root = delete(root, node);
+        }
+    }
+
+    void clear() {
+        nodes.clear();
+        root = null;
+    }
+
+    boolean hasIntersection(Task task) {
+        Optional<Instant> start = task.getStartTime();
+        Optional<Instant> end = task.getEndTime();
+        if (start.isEmpty() || end.isEmpty()) {
+            return false;
+        }
+
+        Node self = nodes.get(task.getId());
+        if (self != null) {
+            root = delete(root, self);
+        }
+        try {
+            return stabs(start.get(), true) || stabsEnd(end.get());
+        } finally {
+            if (self != null) {
+                root = insert(root, self);
+            }
+        }
+    }
+
+    Instant findFreeSlot(Duration duration, Instant notBefore) {
+        Instant cursor = notBefore;
+        while (true) {
+            Instant coveredUntil = maxEndBefore(cursor, true);
+            if (coveredUntil != null && coveredUntil.isAfter(cursor)) {
+                cursor = coveredUntil;
+                continue;
+            }
+
+            // a slot whose end is past Instant.MAX fails here even when nothing follows it
+            Instant end = cursor.plus(duration);
+            Instant nextStart = minStartAfter(cursor);
+            if (nextStart == null || !end.isAfter(nextStart)) {
+                return cursor;
+            }
+            cursor = nextStart;
+        }
+    }
+
+    int forEachCovering(Instant point, int limit, IntConsumer action) {
+        return forEachCovering(root, point, limit, action);
+    }
+
+    // returns how many of the limit are left once the covering intervals are visited
+    private static int forEachCovering(Node n, Instant point, int limit, IntConsumer action) {
+        if (n == null || limit == 0 || !n.maxEnd.isAfter(point)) {
+            return limit;
+        }
+        limit = forEachCovering(n.left, point, limit, action);
+        if (limit > 0 && n.start.isBefore(point)) {
+            if (n.end.isAfter(point)) {
+                action.accept(n.id);
+                limit--;
+            }
+            limit = forEachCovering(n.right, point, limit, action);
+        }
+        return limit;
+    }
+
+    private boolean stabs(Instant point, boolean inclusive) {
+        Instant maxEnd = maxEndBefore(point, inclusive);
+        return maxEnd != null && maxEnd.isAfter(point);
+    }
+
+    private boolean stabsEnd(Instant point) {
+        Instant maxEnd = maxEndBefore(point, false);
+        return maxEnd != null && !maxEnd.isBefore(point);
+    }
+
+    private Instant maxEndBefore(Instant point, boolean inclusive) {
+        Instant result = null;
+        Node n = root;
+        while (n != null) {
+            int cmp = n.start.compareTo(point);
+            if (cmp < 0 || (inclusive && cmp == 0)) {
+                result = max(result, n.end);
+                if (n.left != null) {
+                    result = max(result, n.left.maxEnd);
+                }
+                n = n.right;
+            } else {
+                n = n.left;
+            }
+        }
+        return result;
+    }
+
+    private Instant minStartAfter(Instant point) {
+        Instant result = null;
+        Node n = root;
+        while (n != null) {
+            if (n.start.isAfter(point)) {
+                result = n.start;
+                n = n.left;
+            } else {
+                n = n.right;
+            }
+        }
+        return result;
+    }
+
+    private static int compare(Node a, Node b) {
+        int cmp = a.start.compareTo(b.start);
+        return cmp != 0 ? cmp : Integer.compare(a.id, b.id);
+    }
+
+    private static Instant max(Instant a, Instant b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static int height(Node n) {
+        return n == null ? 0 : n.height;
+    }
+
+    private static void update(Node n) {
+        n.height = 1 + Math.max(height(n.left), height(n.right));
+        Instant maxEnd = n.end;
+        if (n.left != null) {
+            maxEnd = max(maxEnd, n.left.maxEnd);
+        }
+        if (n.right != null) {
+            maxEnd = max(maxEnd, n.right.maxEnd);
+        }
+        n.maxEnd = maxEnd;
+    }
+
+    private static Node rotateRight(Node n) {
+        Node l = n.left;
+        n.left = l.right;
+        l.right = n;
+        update(n);
+        update(l);
+        return l;
+    }
+
+    private static Node rotateLeft(Node n) {
+        Node r = n.right;
+        n.right = r.left;
+        r.left = n;
+        update(n);
+        update(r);
+        return r;
+    }
+
+    private static Node balance(Node n) {
+        update(n);
+        int diff = height(n.left) - height(n.right);
+        if (diff > 1) {
+            if (height(n.left.left) < height(n.left.right)) {
+                n.left = rotateLeft(n.left);
+            }
+            return rotateRight(n);
+        }
+        if (diff < -1) {
+            if (height(n.right.right) < height(n.right.left)) {
+                n.right = rotateRight(n.right);
+            }
+            return rotateLeft(n);
+        }
+        return n;
+    }
+
+    private static Node insert(Node n, Node node) {
+        if (n == null) {
+            node.left = null;
+            node.right = null;
+            update(node);
+            return node;
+        }
+        if (compare(node, n) < 0) {
+            n.left = insert(n.left, node);
+        } else {
+            n.right = insert(n.right, node);
+        }
+        return balance(n);
+    }
+
+    private static Node delete(Node n, Node node) {
+        if (n == null) {
+            return null;
+        }
+        int cmp = compare(node, n);
+        if (cmp < 0) {
+            n.left = delete(n.left, node);
+        } else if (cmp > 0) {
+            n.right = delete(n.right, node);
+        } else {
+            if (n.left == null) return n.right;
+            if (n.right == null) return n.left;
+
+            Node successor = n.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteMin(n.right);
+            successor.left = n.left;
+            return balance(successor);
+        }
+        return balance(n);
+    }
+
+    private static Node deleteMin(Node n) {
+        if (n.left == null) {
+            return n.right;
+        }
+        n.left = deleteMin(n.left);
+        return balance(n);
+    }
+}
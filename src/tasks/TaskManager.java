@@ -5,6 +5,9 @@ import utils.exceptions.TaskNotFoundException;
 import utils.exceptions.TaskHasInteractionException;
 import utils.exceptions.EpicIllegalArgumentException;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.SortedSet;
 
@@ -15,12 +18,31 @@ public interface TaskManager {
 
     List<Subtask> getSubtasks();
 
+    Collection<Epic> getEpicsView();
+
+    Collection<Task> getTasksView();
+
+    Collection<Subtask> getSubtasksView();
+
+    List<Task> getTasksPage(int afterId, int limit);
+
+    List<Epic> getEpicsPage(int afterId, int limit);
+
+    List<Subtask> getSubtasksPage(int afterId, int limit);
+
     int createTask(Task task) throws TaskHasInteractionException;
 
     int createEpic(Epic epic) throws EpicIllegalArgumentException;
 
     int createSubtask(Subtask subtask) throws TaskNotFoundException, TaskHasInteractionException;
 
+    List<Integer> createTasks(List<Task> tasks) throws TaskHasInteractionException;
+
+    List<Integer> createSubtasks(List<Subtask> subtasks) throws TaskNotFoundException, TaskHasInteractionException;
+
+    List<Integer> applyBatch(List<BatchOperation> operations) throws TaskNotFoundException,
+            TaskHasInteractionException, EpicMatchException, EpicIllegalArgumentException;
+
     Task getTask(int id) throws TaskNotFoundException;
 
     Epic getEpic(int id) throws TaskNotFoundException;
@@ -49,5 +71,47 @@ public interface TaskManager {
 
     List<Task> getHistory();
 
+    Collection<Task> getHistoryView();
+
     SortedSet<Task> getPrioritizedTasks();
+
+    SortedSet<Task> getPrioritizedTasksView();
+
+    List<Task> getPrioritizedTasksPage(Instant after, int afterId, int limit);
+
+    List<Task> getTasksByStatus(Status status);
+
+    List<Epic> getEpicsByStatus(Status status);
+
+    List<Subtask> getSubtasksByStatus(Status status);
+
+    List<Task> getTasksByStatusPage(Status status, int afterId, int limit);
+
+    List<Epic> getEpicsByStatusPage(Status status, int afterId, int limit);
+
+    List<Subtask> getSubtasksByStatusPage(Status status, int afterId, int limit);
+
+    List<Integer> search(String query, int limit);
+
+    List<Task> getTasksBetween(Instant from, Instant to);
+
+    List<Task> getTasksBetween(Instant from, Instant to, int limit);
+
+    List<Task> getNextTasks(Instant after, int limit);
+
+    Instant findFreeSlot(Duration duration, Instant notBefore);
+
+    void addEventListener(TaskEventListener listener);
+
+    void removeEventListener(TaskEventListener listener);
+
+    long getTasksVersion();
+
+    long getEpicsVersion();
+
+    long getSubtasksVersion();
+
+    long getPrioritizedTasksVersion();
+
+    long getHistoryVersion();
 }
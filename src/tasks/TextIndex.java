@@ -0,0 +1,108 @@
+package tasks;
+
+import utils.collections.IntHashMap;
+import utils.collections.IntIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+class TextIndex {
+
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final HashMap<String, IntIntHashMap> postings = new HashMap<>();
+    private final IntHashMap<String[]> documents = new IntHashMap<>();
+
+    void update(Task task) {
+        int id = task.getId();
+        remove(id);
+
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        tokenize(task.getName(), NAME_WEIGHT, weights);
+        tokenize(task.getDescription(), DESCRIPTION_WEIGHT, weights);
+        if (weights.isEmpty()) {
+            return;
+        }
+
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new IntIntHashMap()).put(id, weight));
+        documents.put(id, weights.keySet().toArray(new String[0]));
+    }
+
+    void remove(int id) {
+        String[] terms = documents.remove(id);
+        if (terms == null) {
+            return;
+        }
+
+        for (String term : terms) {
+            IntIntHashMap posting = postings.get(term);
+            posting.remove(id, 0);
+            if (posting.size() == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    void clear() {
+        postings.clear();
+        documents.clear();
+    }
+
+    List<Integer> search(String query, int limit) {
+        Map<String, Integer> terms = new LinkedHashMap<>();
+        tokenize(query, 1, terms);
+
+        Map<Integer, Double> scores = new HashMap<>();
+        for (String term : terms.keySet()) {
+            IntIntHashMap posting = postings.get(term);
+            if (posting == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (double) documents.size() / posting.size());
+            posting.forEach((id, weight) -> scores.merge(id, weight * idf, Double::sum));
+        }
+
+        Comparator<Map.Entry<Integer, Double>> ranking = Map.Entry.<Integer, Double>comparingByValue()
+                .reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<Integer, Double>> top = new PriorityQueue<>(ranking.reversed());
+        for (Map.Entry<Integer, Double> score : scores.entrySet()) {
+            top.add(score);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(top);
+        ranked.sort(ranking);
+        List<Integer> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<Integer, Double> score : ranked) {
+            ids.add(score.getKey());
+        }
+        return ids;
+    }
+
+    private static void tokenize(String text, int weight, Map<String, Integer> weights) {
+        if (text == null) {
+            return;
+        }
+
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                weights.merge(text.substring(start, i).toLowerCase(Locale.ROOT), weight, Integer::sum);
+                start = -1;
+            }
+        }
+    }
+}
@@ -1,23 +1,60 @@
 package utils;
 
+import tasks.ConcurrentTaskManager;
 import tasks.FileBackedTaskManager;
 import history.HistoryManager;
 import tasks.InMemoryTaskManager;
+import tasks.SnapshotFormat;
+import history.ArrayHistoryManager;
+import history.ConcurrentHistoryManager;
 import history.InMemoryHistoryManager;
+import utils.collections.IntHashMap;
 
 import java.io.File;
 
 public class Manager {
 
+    public static final String HISTORY_MAX_SIZE_PROPERTY = "kanban.history.maxSize";
+
     public static InMemoryTaskManager getDefault() {
         return new InMemoryTaskManager();
     }
 
+    public static InMemoryTaskManager getCompact() {
+        return new InMemoryTaskManager(new IntHashMap<>(), new IntHashMap<>(), new IntHashMap<>(),
+                getDefaultHistory());
+    }
+
+    public static ConcurrentTaskManager getConcurrent() {
+        return new ConcurrentTaskManager();
+    }
+
     public static HistoryManager getDefaultHistory() {
-        return new InMemoryHistoryManager();
+        return getDefaultHistory(Integer.getInteger(HISTORY_MAX_SIZE_PROPERTY, Integer.MAX_VALUE));
+    }
+
+    public static HistoryManager getDefaultHistory(int maxSize) {
+        return new InMemoryHistoryManager(maxSize);
+    }
+
+    public static HistoryManager getArrayHistory() {
+        return new ArrayHistoryManager(Integer.getInteger(HISTORY_MAX_SIZE_PROPERTY, Integer.MAX_VALUE));
+    }
+
+    public static HistoryManager getConcurrentHistory() {
+        return new ConcurrentHistoryManager(Integer.getInteger(HISTORY_MAX_SIZE_PROPERTY, Integer.MAX_VALUE));
     }
 
     public static FileBackedTaskManager getFileTaskManager(File f) {
         return new FileBackedTaskManager(f);
     }
+
+    public static FileBackedTaskManager getFileTaskManager(File f, SnapshotFormat format) {
+        return new FileBackedTaskManager(f, format);
+    }
+
+    public static FileBackedTaskManager getGroupCommitFileTaskManager(File f, long flushIntervalMillis,
+                                                                      int flushBatchSize) {
+        return new FileBackedTaskManager(f, flushIntervalMillis, flushBatchSize);
+    }
 }
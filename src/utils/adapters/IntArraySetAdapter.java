@@ -0,0 +1,38 @@
+package utils.adapters;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import utils.collections.IntArraySet;
+
+import java.io.IOException;
+
+public class IntArraySetAdapter extends TypeAdapter<IntArraySet> {
+
+    @Override
+    public void write(JsonWriter jsonWriter, IntArraySet set) throws IOException {
+        if (set == null) {
+            jsonWriter.nullValue();
+            return;
+        }
+
+        jsonWriter.beginArray();
+        for (int i = 0; i < set.size(); i++) {
+            jsonWriter.value(set.get(i));
+        }
+        jsonWriter.endArray();
+    }
+
+    @Override
+    public IntArraySet read(JsonReader jsonReader) throws IOException {
+        IntArraySet set = new IntArraySet();
+
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            set.add(jsonReader.nextInt());
+        }
+        jsonReader.endArray();
+
+        return set;
+    }
+}
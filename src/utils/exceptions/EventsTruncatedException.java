@@ -0,0 +1,8 @@
+package utils.exceptions;
+
+public class EventsTruncatedException extends RuntimeException {
+    public EventsTruncatedException(long sequence, long truncatedUpTo) {
+        super(String.format("События после sequence=%d уже удалены из журнала, доступны начиная с sequence=%d",
+                sequence, truncatedUpTo + 1));
+    }
+}
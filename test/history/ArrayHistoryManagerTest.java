@@ -0,0 +1,77 @@
+package history;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import tasks.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class ArrayHistoryManagerTest {
+
+    private void assertSameHistory(HistoryManager expected, HistoryManager actual) {
+        assertEquals(expected.getHistory(), actual.getHistory());
+        assertEquals(expected.getHistory(), new ArrayList<>(actual.getHistoryView()));
+        assertEquals(expected.getHistoryView().size(), actual.getHistoryView().size());
+    }
+
+    private void replay(HistoryManager expected, HistoryManager actual, long seed) {
+        Random random = new Random(seed);
+        List<Task> tasks = new ArrayList<>();
+        for (int id = 0; id < 100; id++) {
+            tasks.add(new Task(id, "name " + id, "description " + id));
+        }
+
+        for (int i = 0; i < 20_000; i++) {
+            Task task = tasks.get(random.nextInt(tasks.size()));
+            if (random.nextInt(4) == 0) {
+                expected.remove(task.getId());
+                actual.remove(task.getId());
+            } else {
+                expected.add(task);
+                actual.add(task);
+            }
+            if (i % 1_000 == 0) {
+                assertSameHistory(expected, actual);
+            }
+        }
+        assertSameHistory(expected, actual);
+    }
+
+    @Test
+    void matchesInMemoryHistoryTest() {
+        replay(new InMemoryHistoryManager(), new ArrayHistoryManager(), 7);
+    }
+
+    @Test
+    void boundedHistoryMatchesInMemoryTest() {
+        replay(new InMemoryHistoryManager(30), new ArrayHistoryManager(30), 11);
+    }
+
+    @Test
+    void reusesFreedSlotsTest() {
+        HistoryManager historyManager = new ArrayHistoryManager(3);
+        Task first = new Task(1, "first", "desc");
+        Task second = new Task(2, "second", "desc");
+        Task third = new Task(3, "third", "desc");
+        Task fourth = new Task(4, "fourth", "desc");
+
+        historyManager.add(first);
+        historyManager.add(second);
+        historyManager.add(third);
+        historyManager.add(first);
+        historyManager.add(fourth);
+
+        assertEquals(List.of(third, first, fourth), historyManager.getHistory());
+
+        historyManager.remove(first.getId());
+        historyManager.remove(first.getId());
+        historyManager.add(second);
+
+        assertEquals(List.of(third, fourth, second), historyManager.getHistory());
+        assertThrows(IllegalArgumentException.class, () -> new ArrayHistoryManager(0));
+    }
+}
@@ -0,0 +1,173 @@
+package history;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import tasks.Task;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class ConcurrentHistoryManagerTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 50;
+    private static final int OPERATIONS = 20_000;
+
+    private List<Integer> ids(List<Task> tasks) {
+        List<Integer> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    void sequentialBehaviourMatchesInMemoryTest() {
+        HistoryManager expected = new InMemoryHistoryManager(20);
+        HistoryManager actual = new ConcurrentHistoryManager(20);
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            int id = random.nextInt(40);
+            if (random.nextInt(4) == 0) {
+                expected.remove(id);
+                actual.remove(id);
+            } else {
+                Task task = new Task(id, "name " + id, "description " + id);
+                expected.add(task);
+                actual.add(task);
+            }
+        }
+
+        assertEquals(ids(expected.getHistory()), ids(actual.getHistory()));
+        assertEquals(ids(expected.getHistory()), ids(new ArrayList<>(actual.getHistoryView())));
+    }
+
+    @Test
+    void concurrentAddRemoveTest() throws Exception {
+        HistoryManager historyManager = new ConcurrentHistoryManager();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<HistoryManager> expected = new ArrayList<>();
+        List<Future<?>> writers = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int base = t * IDS_PER_THREAD;
+                HistoryManager sequential = new InMemoryHistoryManager();
+                expected.add(sequential);
+                writers.add(executor.submit(() -> {
+                    Random random = new Random(base);
+                    start.await();
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        int id = base + random.nextInt(IDS_PER_THREAD);
+                        if (random.nextInt(5) == 0) {
+                            historyManager.remove(id);
+                            sequential.remove(id);
+                        } else {
+                            Task task = new Task(id, "name " + id, "description " + id);
+                            historyManager.add(task);
+                            sequential.add(task);
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            Future<?> reader = executor.submit(() -> {
+                start.await();
+                while (running.get()) {
+                    List<Integer> snapshot = ids(historyManager.getHistory());
+                    assertEquals(snapshot.size(), new HashSet<>(snapshot).size());
+                    assertTrue(snapshot.size() <= THREADS * IDS_PER_THREAD);
+                }
+                return null;
+            });
+
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            running.set(false);
+            reader.get();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        List<Integer> history = ids(historyManager.getHistory());
+        Set<Integer> seen = new HashSet<>();
+        for (int t = 0; t < THREADS; t++) {
+            List<Integer> own = new ArrayList<>();
+            for (int id : history) {
+                if (id / IDS_PER_THREAD == t) {
+                    own.add(id);
+                }
+            }
+            assertEquals(ids(expected.get(t).getHistory()), own);
+            seen.addAll(own);
+        }
+        assertEquals(history.size(), seen.size());
+    }
+
+    @Test
+    void concurrentBoundedAddTest() throws Exception {
+        int maxSize = 10;
+        HistoryManager historyManager = new ConcurrentHistoryManager(maxSize);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Future<?>> writers = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int seed = t;
+                writers.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    start.await();
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        // all writers share the same ids, so they race on the same eldest entry
+                        int id = random.nextInt(IDS_PER_THREAD);
+                        historyManager.add(new Task(id, "name " + id, "description " + id));
+                    }
+                    return null;
+                }));
+            }
+
+            Future<?> reader = executor.submit(() -> {
+                start.await();
+                while (running.get()) {
+                    List<Integer> snapshot = ids(historyManager.getHistory());
+                    assertEquals(snapshot.size(), new HashSet<>(snapshot).size());
+                }
+                return null;
+            });
+
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            running.set(false);
+            reader.get();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        List<Integer> history = ids(historyManager.getHistory());
+        assertEquals(maxSize, history.size());
+        assertEquals(maxSize, new HashSet<>(history).size());
+    }
+}
@@ -74,4 +74,21 @@ class InMemoryHistoryManagerTest {
         assertArrayEquals(etalonOrder, calcOrder);
     }
 
+    @Test
+    void boundedHistoryEvictsOldest() {
+        HistoryManager bounded = Manager.getDefaultHistory(3);
+        for (int i = 1; i <= 5; i++) {
+            bounded.add(new Task(i, "name " + i, "description " + i));
+        }
+        bounded.add(new Task(3, "name 3", "description 3"));
+
+        assertArrayEquals(new int[]{4, 5, 3}, fromListToArray(bounded.getHistory()));
+        assertEquals(3, bounded.getHistoryView().size());
+
+        bounded.remove(5);
+        bounded.add(new Task(6, "name 6", "description 6"));
+
+        assertArrayEquals(new int[]{4, 3, 6}, fromListToArray(bounded.getHistory()));
+        assertThrows(IllegalArgumentException.class, () -> Manager.getDefaultHistory(0));
+    }
 }
\ No newline at end of file
@@ -14,12 +14,23 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.Duration;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -62,6 +73,51 @@ public class HttpTaskManagerTasksTest {
         return client.send(request, HttpResponse.BodyHandlers.ofString());
     }
 
+    private static class FailingTaskManager extends InMemoryTaskManager {
+        private int failAfter;
+
+        @Override
+        public Collection<Task> getTasksView() {
+            return new FailingCollection(super.getTasksView(), failAfter);
+        }
+    }
+
+    private static class FailingCollection extends AbstractCollection<Task> {
+        private final Collection<Task> tasks;
+        private final int failAfter;
+
+        FailingCollection(Collection<Task> tasks, int failAfter) {
+            this.tasks = tasks;
+            this.failAfter = failAfter;
+        }
+
+        @Override
+        public Iterator<Task> iterator() {
+            Iterator<Task> iterator = tasks.iterator();
+            return new Iterator<>() {
+                private int returned;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Task next() {
+                    if (returned++ == failAfter) {
+                        throw new ConcurrentModificationException();
+                    }
+                    return iterator.next();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return tasks.size();
+        }
+    }
+
     @BeforeEach
     public void setUp() throws IOException {
         taskManager.removeAllTask();
@@ -590,4 +646,423 @@ public class HttpTaskManagerTasksTest {
 
         assertEquals(arrJson, response.body());
     }
+
+    @Test
+    void testConcurrentRequestsWithExecutor() throws IOException, InterruptedException {
+        ConcurrentTaskManager concurrentManager = Manager.getConcurrent();
+        ExecutorService executor = HttpTaskServer.boundedExecutor(4, 100);
+        HttpTaskServer<ConcurrentTaskManager> server = new HttpTaskServer<>(concurrentManager, 8081, 50, executor);
+        server.start();
+
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                Task task = new Task("Test task " + i, "Testing concurrent creation");
+                HttpRequest request = HttpRequest.newBuilder()
+                        .uri(URI.create("http://localhost:8081/tasks"))
+                        .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(task)))
+                        .build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                assertEquals(201, response.join().statusCode());
+            }
+            assertEquals(50, concurrentManager.getTasks().size());
+        } finally {
+            server.stop();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testOverloadedExecutorAnswers503() throws Exception {
+        ExecutorService executor = HttpTaskServer.boundedExecutor(1, 1);
+        HttpTaskServer<ConcurrentTaskManager> server = new HttpTaskServer<>(Manager.getConcurrent(), 8081, 0, executor);
+        CountDownLatch release = new CountDownLatch(1);
+        server.start();
+
+        try {
+            // occupy the only worker and the only queue slot
+            for (int i = 0; i < 2; i++) {
+                executor.execute(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:8081/tasks"))
+                    .GET()
+                    .build();
+            HttpResponse<String> response = HttpClient.newHttpClient()
+                    .send(request, HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(503, response.statusCode());
+            assertEquals("1", response.headers().firstValue("Retry-After").orElseThrow());
+
+            release.countDown();
+            response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+        } finally {
+            release.countDown();
+            server.stop();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testStopWithoutStart() {
+        HttpTaskServer<TaskManager> server = new HttpTaskServer<>(Manager.getDefault(), 8081, 0, null);
+        assertDoesNotThrow(server::stop);
+    }
+
+    @Test
+    void testExecutorRequiresConcurrentManager() {
+        ExecutorService executor = HttpTaskServer.boundedExecutor(4, 100);
+        try {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new HttpTaskServer<>(Manager.getDefault(), 8081, 0, executor));
+            assertDoesNotThrow(() -> new HttpTaskServer<>(Manager.getDefault(), 8081, 0, null));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testStreamingResponseLength() throws IOException, InterruptedException {
+        taskManager.createTask(new Task("Test create task", "Testing creation task"));
+
+        HttpResponse<String> smallResponse = getGetResponse("/tasks");
+
+        assertEquals(200, smallResponse.statusCode());
+        assertEquals(gson.toJson(taskManager.getTasks()), smallResponse.body());
+        assertEquals(String.valueOf(smallResponse.body().getBytes(StandardCharsets.UTF_8).length),
+                smallResponse.headers().firstValue("Content-Length").orElseThrow());
+
+        for (int i = 0; i < 1_000; i++) {
+            taskManager.createTask(new Task("Тестовая задача " + i, "Проверка потоковой записи"));
+        }
+
+        HttpResponse<String> largeResponse = getGetResponse("/tasks");
+
+        assertEquals(200, largeResponse.statusCode());
+        assertEquals(gson.toJson(taskManager.getTasks()), largeResponse.body());
+        assertEquals("chunked", largeResponse.headers().firstValue("Transfer-Encoding").orElseThrow());
+    }
+
+    @Test
+    void testGetTasksPage() throws IOException, InterruptedException {
+        Instant start = Instant.parse("2022-01-01T10:00:00Z");
+        for (int i = 0; i < 5; i++) {
+            taskManager.createTask(new Task("Test task " + i, "Testing pagination",
+                    start.plus(Duration.ofHours(i)), Duration.ofMinutes(5)));
+        }
+        List<Task> tasks = taskManager.getTasksPage(0, 5);
+
+        HttpResponse<String> response = getGetResponse("/tasks?limit=2&cursor=" + tasks.get(1).getId());
+
+        assertEquals(200, response.statusCode());
+        assertEquals(gson.toJson(tasks.subList(2, 4)), response.body());
+
+        response = getGetResponse("/prioritized?limit=2&after=" + start.plus(Duration.ofHours(2)));
+
+        assertEquals(200, response.statusCode());
+        assertEquals(gson.toJson(tasks.subList(3, 5)), response.body());
+
+        Instant tied = start.plus(Duration.ofHours(10));
+        int firstTiedId = taskManager.createTask(new Task("Tied task", "Testing pagination", tied, Duration.ZERO));
+        int secondTiedId = taskManager.createTask(new Task("Tied task", "Testing pagination", tied, Duration.ZERO));
+        response = getGetResponse("/prioritized?limit=2&after=" + tied + "&afterId=" + firstTiedId);
+
+        assertEquals(200, response.statusCode());
+        assertEquals(gson.toJson(List.of(taskManager.getTask(secondTiedId))), response.body());
+
+        assertEquals(400, getGetResponse("/prioritized?after=" + start + "&afterId=x").statusCode());
+        assertEquals(400, getGetResponse("/tasks?limit=0").statusCode());
+        assertEquals(400, getGetResponse("/subtasks?cursor=abc").statusCode());
+        assertEquals(400, getGetResponse("/prioritized?after=yesterday").statusCode());
+    }
+
+    @Test
+    void testGetPrioritizedTimeRange() throws IOException, InterruptedException {
+        Instant start = Instant.parse("2022-01-01T10:00:00Z");
+        for (int i = 0; i < 5; i++) {
+            taskManager.createTask(new Task("Test task " + i, "Testing time range",
+                    start.plus(Duration.ofDays(i)), Duration.ofMinutes(5)));
+        }
+        List<Task> tasks = new ArrayList<>(taskManager.getPrioritizedTasks());
+
+        HttpResponse<String> response = getGetResponse("/prioritized?from=" + start.plus(Duration.ofDays(1))
+                + "&to=" + start.plus(Duration.ofDays(3)));
+
+        assertEquals(200, response.statusCode());
+        assertEquals(gson.toJson(tasks.subList(1, 3)), response.body());
+
+        response = getGetResponse("/prioritized?from=" + start.plus(Duration.ofDays(2)) + "&limit=2");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(gson.toJson(tasks.subList(2, 4)), response.body());
+
+        response = getGetResponse("/prioritized?from=" + start + "&to=" + start.plus(Duration.ofDays(4))
+                + "&limit=2");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(gson.toJson(tasks.subList(0, 2)), response.body());
+
+        assertEquals(400, getGetResponse("/prioritized?to=" + start).statusCode());
+        assertEquals(400, getGetResponse("/prioritized?from=" + start.plus(Duration.ofDays(1))
+                + "&to=" + start).statusCode());
+        assertEquals(400, getGetResponse("/prioritized?from=tomorrow").statusCode());
+    }
+
+    @Test
+    void testGetFreeSlot() throws IOException, InterruptedException {
+        Instant start = Instant.parse("2022-01-01T10:00:00Z");
+        taskManager.createTask(new Task("Test task 1", "Testing free slot", start, Duration.ofMinutes(60)));
+        taskManager.createTask(new Task("Test task 2", "Testing free slot",
+                start.plus(Duration.ofMinutes(80)), Duration.ofMinutes(60)));
+
+        HttpResponse<String> response = getGetResponse("/prioritized/free-slot?duration=30&notBefore=" + start);
+
+        assertEquals(200, response.statusCode());
+        assertEquals(gson.toJson(start.plus(Duration.ofMinutes(140))), response.body());
+
+        assertEquals(400, getGetResponse("/prioritized/free-slot?duration=0").statusCode());
+        assertEquals(400, getGetResponse("/prioritized/free-slot?notBefore=" + start).statusCode());
+        assertEquals(400, getGetResponse("/prioritized/free-slot?duration=" + Long.MAX_VALUE).statusCode());
+        assertEquals(400, getGetResponse("/prioritized/free-slot?duration=1000000000000000&notBefore="
+                + start).statusCode());
+        String lastMinute = URLEncoder.encode(Instant.MAX.minusSeconds(60).toString(), StandardCharsets.UTF_8);
+        assertEquals(400, getGetResponse("/prioritized/free-slot?duration=30&notBefore=" + lastMinute)
+                .statusCode());
+        assertEquals(200, getGetResponse("/prioritized/free-slot?duration=1&notBefore=" + lastMinute)
+                .statusCode());
+        assertEquals(404, getGetResponse("/prioritized/busy-slot").statusCode());
+    }
+
+    @Test
+    void testPostBatch() throws IOException, InterruptedException {
+        Instant start = Instant.parse("2022-01-01T10:00:00Z");
+        int epicId = taskManager.createEpic(new Epic("Test epic", "Testing batch"));
+        int taskId = taskManager.createTask(new Task("Test task", "Testing batch"));
+        Task task = new Task("Test task 1", "Testing batch", start, Duration.ofMinutes(5));
+        Subtask subtask = new Subtask("Test subtask", "Testing batch", epicId);
+        String batch = "[{\"action\":\"CREATE\",\"type\":\"Task\",\"task\":" + gson.toJson(task) + "},"
+                + "{\"action\":\"CREATE\",\"type\":\"Subtask\",\"task\":" + gson.toJson(subtask) + "},"
+                + "{\"action\":\"DELETE\",\"id\":" + taskId + "}]";
+
+        HttpResponse<String> response = getPostResponse("/batch", batch);
+
+        assertEquals(201, response.statusCode());
+        List<Task> tasks = taskManager.getTasks();
+        assertEquals(1, tasks.size());
+        assertEquals(1, taskManager.getSubtasks().size());
+        assertEquals(gson.toJson(List.of(tasks.get(0).getId(), taskManager.getSubtasks().get(0).getId(), taskId)),
+                response.body());
+
+        String overlapping = "[{\"action\":\"CREATE\",\"type\":\"Task\",\"task\":" + gson.toJson(task) + "}]";
+        assertEquals(406, getPostResponse("/batch", overlapping).statusCode());
+        assertEquals(400, getPostResponse("/batch", "{\"action\":\"DELETE\"}").statusCode());
+        assertEquals(400, getPostResponse("/batch", "[{\"action\":\"CREATE\",\"type\":\"Note\",\"task\":{}}]")
+                .statusCode());
+        assertEquals(1, taskManager.getTasks().size());
+    }
+
+    @Test
+    void testGetTasksByStatus() throws IOException, InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            taskManager.createTask(new Task(0, "Test task " + i, "Testing status filter",
+                    i % 2 == 0 ? Status.IN_PROGRESS : Status.NEW));
+        }
+        List<Task> inProgress = taskManager.getTasksByStatus(Status.IN_PROGRESS);
+
+        HttpResponse<String> response = getGetResponse("/tasks?status=IN_PROGRESS");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(gson.toJson(inProgress), response.body());
+
+        response = getGetResponse("/tasks?status=IN_PROGRESS&limit=1&cursor=" + inProgress.get(0).getId());
+
+        assertEquals(200, response.statusCode());
+        assertEquals(gson.toJson(inProgress.subList(1, 2)), response.body());
+
+        response = getGetResponse("/epics?status=DONE");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("[]", response.body());
+        assertEquals(400, getGetResponse("/subtasks?status=LATER").statusCode());
+    }
+
+    @Test
+    void testSearch() throws IOException, InterruptedException {
+        int taskId = taskManager.createTask(new Task("Test task", "Testing search"));
+        int otherId = taskManager.createTask(new Task("Other task", "Needs a test too"));
+
+        HttpResponse<String> response = getGetResponse("/search?q=test");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(gson.toJson(List.of(taskId, otherId)), response.body());
+
+        response = getGetResponse("/search?q=other%20search&limit=1");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(gson.toJson(List.of(otherId)), response.body());
+
+        assertEquals(400, getGetResponse("/search").statusCode());
+        assertEquals(400, getGetResponse("/search?q=test&limit=0").statusCode());
+    }
+
+    @Test
+    void testGetEvents() throws Exception {
+        HttpRequest poll = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/events?since=0&timeout=5000"))
+                .GET()
+                .build();
+        CompletableFuture<HttpResponse<String>> pending = HttpClient.newHttpClient()
+                .sendAsync(poll, HttpResponse.BodyHandlers.ofString());
+
+        // a waiting poll must not hold up other requests
+        assertEquals(200, getGetResponse("/tasks").statusCode());
+        assertFalse(pending.isDone());
+
+        Task task = new Task("Test task", "Testing events");
+        assertEquals(201, getPostResponse("/tasks", gson.toJson(task)).statusCode());
+
+        HttpResponse<String> response = pending.get(5, TimeUnit.SECONDS);
+        assertEquals(200, response.statusCode());
+        TaskEvent[] events = gson.fromJson(response.body(), TaskEvent[].class);
+        assertEquals(1, events.length);
+        assertEquals(1, events[0].getSequence());
+        assertEquals(TaskEvent.Type.CREATED, events[0].getType());
+        assertEquals("Task", events[0].getTaskType());
+        assertEquals(taskManager.getTasks().get(0), events[0].getTask());
+
+        response = getGetResponse("/events?since=1&timeout=0");
+        assertEquals(200, response.statusCode());
+        assertEquals("[]", response.body());
+
+        assertEquals(400, getGetResponse("/events?since=-1").statusCode());
+
+        // events published while the server is down are missing from the new server's log
+        taskServer.stop();
+        taskManager.removeAllTask();
+        taskServer.start();
+
+        pending = HttpClient.newHttpClient().sendAsync(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/events?since=2&timeout=5000"))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, getGetResponse("/tasks").statusCode());
+        taskManager.createTask(new Task("Other task", "Testing events"));
+
+        response = pending.get(5, TimeUnit.SECONDS);
+        assertEquals(200, response.statusCode());
+        assertEquals(3, gson.fromJson(response.body(), TaskEvent[].class)[0].getSequence());
+        assertEquals(410, getGetResponse("/events?since=1&timeout=0").statusCode());
+        assertEquals(400, getGetResponse("/events?since=4&timeout=0").statusCode());
+    }
+
+    private HttpResponse<String> getConditionalResponse(String endpoint, String etag)
+            throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080" + endpoint);
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(url)
+                .header("If-None-Match", etag)
+                .GET()
+                .build();
+
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void testConditionalGet() throws IOException, InterruptedException {
+        int taskId = taskManager.createTask(new Task("Test task", "Testing etags"));
+
+        for (String endpoint : List.of("/tasks", "/tasks/" + taskId, "/epics", "/subtasks", "/history",
+                "/prioritized", "/tasks?status=NEW&limit=10")) {
+            HttpResponse<String> response = getGetResponse(endpoint);
+            assertEquals(200, response.statusCode());
+            String etag = response.headers().firstValue("ETag").orElseThrow();
+
+            response = getConditionalResponse(endpoint, etag);
+            assertEquals(304, response.statusCode(), endpoint);
+            assertEquals(etag, response.headers().firstValue("ETag").orElseThrow());
+            assertTrue(response.body().isEmpty());
+        }
+
+        String tasksEtag = getGetResponse("/tasks").headers().firstValue("ETag").orElseThrow();
+        String epicsEtag = getGetResponse("/epics").headers().firstValue("ETag").orElseThrow();
+        String taskEtag = getGetResponse("/tasks/" + taskId).headers().firstValue("ETag").orElseThrow();
+
+        Task updated = new Task(taskId, "Updated task", null, null);
+        assertEquals(201, getPostResponse("/tasks", gson.toJson(updated)).statusCode());
+
+        HttpResponse<String> response = getConditionalResponse("/tasks", "\"stale\", " + tasksEtag);
+        assertEquals(200, response.statusCode());
+        assertEquals(gson.toJson(taskManager.getTasks()), response.body());
+        assertNotEquals(tasksEtag, response.headers().firstValue("ETag").orElseThrow());
+        assertEquals(200, getConditionalResponse("/tasks/" + taskId, taskEtag).statusCode());
+        assertEquals(304, getConditionalResponse("/epics", "W/" + epicsEtag).statusCode());
+    }
+
+    @Test
+    void testFailedSerializationIsNotSentAsComplete() throws Exception {
+        FailingTaskManager failing = new FailingTaskManager();
+        HttpTaskServer<FailingTaskManager> failingServer = new HttpTaskServer<>(failing, 8081, 0, null);
+        for (int i = 0; i < 2000; i++) {
+            failing.createTask(new Task("Test task " + i, "Testing a response that fails midway"));
+        }
+        failingServer.start();
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:8081/tasks"))
+                    .GET()
+                    .build();
+
+            failing.failAfter = 1;
+            HttpResponse<String> response = HttpClient.newHttpClient()
+                    .send(request, HttpResponse.BodyHandlers.ofString());
+            assertEquals(500, response.statusCode());
+
+            failing.failAfter = 1500;
+            assertThrows(IOException.class, () -> HttpClient.newHttpClient()
+                    .send(request, HttpResponse.BodyHandlers.ofString()));
+        } finally {
+            failingServer.stop();
+        }
+    }
+
+    @Test
+    void testEventPollersAreBounded() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest poll = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/events?timeout=10000"))
+                .GET()
+                .build();
+        List<CompletableFuture<HttpResponse<String>>> waiting = new ArrayList<>();
+        for (int i = 0; i < HttpTaskServer.MAX_EVENT_POLLERS; i++) {
+            waiting.add(client.sendAsync(poll, HttpResponse.BodyHandlers.ofString()));
+        }
+        // the parked polls reach the server in any order, so a short poll is retried until the pool is full
+        int status = 200;
+        for (int i = 0; i < 100 && status == 200; i++) {
+            status = getGetResponse("/events?timeout=0").statusCode();
+            if (status == 200) {
+                Thread.sleep(50);
+            }
+        }
+
+        assertEquals(503, status);
+
+        taskManager.createTask(new Task("Test task", "Waking the pollers"));
+        for (CompletableFuture<HttpResponse<String>> response : waiting) {
+            assertEquals(200, response.get(5, TimeUnit.SECONDS).statusCode());
+        }
+    }
 }
@@ -0,0 +1,94 @@
+package tasks;
+
+import org.junit.jupiter.api.Test;
+import utils.Manager;
+import utils.exceptions.ManagerSaveException;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryFileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
+
+    private File f;
+
+    @Override
+    protected FileBackedTaskManager createTaskManager() {
+        try {
+            f = File.createTempFile("test", "binaryFileBackedManager");
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return Manager.getFileTaskManager(f, SnapshotFormat.BINARY);
+    }
+
+    @Test
+    void testReadSnapshotFromFile() {
+        int taskId = taskManager.createTask(new Task("task, with comma", "desc, for task",
+                Instant.parse("2022-01-01T10:00:00.123456789Z"), Duration.ofSeconds(90)));
+        int epicId = taskManager.createEpic(new Epic("epic", "desc for epic"));
+        int subtaskId = taskManager.createSubtask(new Subtask(0, "subtask", null, Status.DONE,
+                Instant.parse("2022-01-02T10:00:00Z"), Duration.ofMinutes(30), epicId));
+        taskManager.getSubtask(subtaskId);
+        taskManager.getTask(taskId);
+
+        assertTrue(BinarySnapshot.isBinary(f));
+
+        FileBackedTaskManager fbtm = FileBackedTaskManager.loadFromFile(f);
+
+        assertEquals(taskManager.getTasks(), fbtm.getTasks());
+        assertEquals(taskManager.getEpics(), fbtm.getEpics());
+        assertEquals(taskManager.getSubtasks(), fbtm.getSubtasks());
+        assertEquals(taskManager.getHistory(), fbtm.getHistory());
+        assertEquals("task, with comma", fbtm.getTask(taskId).getName());
+        assertNull(fbtm.getSubtask(subtaskId).getDescription());
+        assertEquals(Status.DONE, fbtm.getEpic(epicId).getStatus());
+        assertEquals(taskManager.getEpic(epicId).getEndTime(), fbtm.getEpic(epicId).getEndTime());
+    }
+
+    @Test
+    void testReplayBinaryJournal() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(f, SnapshotFormat.BINARY, 100, 0, 1);
+
+        int taskId = manager.createTask(new Task("task", "desc for task"));
+        int epicId = manager.createEpic(new Epic("epic", "desc for epic"));
+        int subtaskId = manager.createSubtask(new Subtask("subtask, with comma", "desc", epicId));
+        manager.updateTask(new Task(taskId, "task, updated", "desc, updated", Status.IN_PROGRESS));
+        manager.getSubtask(subtaskId);
+
+        FileBackedTaskManager fbtm = FileBackedTaskManager.loadFromFile(f);
+
+        assertEquals(manager.getTasks(), fbtm.getTasks());
+        assertEquals(manager.getSubtasks(), fbtm.getSubtasks());
+        assertEquals(manager.getHistory(), fbtm.getHistory());
+        assertEquals("task, updated", fbtm.getTask(taskId).getName());
+    }
+
+    @Test
+    void testRejectUnknownVersion() throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(f))) {
+            out.writeInt(BinarySnapshot.MAGIC);
+            out.writeByte(BinarySnapshot.VERSION + 1);
+        }
+
+        assertThrows(ManagerSaveException.class, () -> FileBackedTaskManager.loadFromFile(f));
+    }
+
+    @Test
+    void testRejectCorruptedSnapshot() throws IOException {
+        taskManager.createTask(new Task("task", "desc for task"));
+        taskManager.createEpic(new Epic("epic", "desc for epic"));
+
+        byte[] snapshot = Files.readAllBytes(f.toPath());
+        snapshot[snapshot.length / 2] ^= 1;
+        Files.write(f.toPath(), snapshot);
+
+        assertThrows(ManagerSaveException.class, () -> FileBackedTaskManager.loadFromFile(f));
+    }
+}
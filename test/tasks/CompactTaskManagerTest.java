@@ -0,0 +1,45 @@
+package tasks;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import utils.Manager;
+
+import java.util.List;
+
+class CompactTaskManagerTest extends TaskManagerTest<InMemoryTaskManager> {
+
+    @Override
+    protected InMemoryTaskManager createTaskManager() {
+        return Manager.getCompact();
+    }
+
+    @Test
+    void manyEntitiesTest() {
+        int epicId = taskManager.createEpic(new Epic("epic name", "epic description"));
+        for (int i = 0; i < 10_000; i++) {
+            taskManager.createTask(new Task("task " + i, "task description"));
+            taskManager.createSubtask(new Subtask("subtask " + i, "subtask description", epicId));
+        }
+
+        assertEquals(10_000, taskManager.getTasks().size());
+        assertEquals(10_000, taskManager.getSubtasks().size());
+        assertEquals(10_000, taskManager.getEpic(epicId).getSubtasksCount());
+
+        List<Task> tasks = taskManager.getTasks();
+        for (int i = 0; i < tasks.size(); i += 2) {
+            taskManager.removeTask(tasks.get(i).getId());
+        }
+        for (Task task : taskManager.getTasks()) {
+            assertEquals(task, taskManager.getTask(task.getId()));
+        }
+        assertEquals(5_000, taskManager.getTasks().size());
+
+        List<Subtask> epicSubtasks = taskManager.getTaskFromEpic(epicId);
+        taskManager.removeEpic(epicId);
+
+        assertEquals(10_000, epicSubtasks.size());
+        assertTrue(taskManager.getSubtasks().isEmpty());
+    }
+}
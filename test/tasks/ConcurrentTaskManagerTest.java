@@ -0,0 +1,162 @@
+package tasks;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import utils.Manager;
+import utils.exceptions.TaskHasInteractionException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ConcurrentTaskManagerTest extends TaskManagerTest<ConcurrentTaskManager> {
+
+    private static final int THREADS = 8;
+
+    @Override
+    protected ConcurrentTaskManager createTaskManager() {
+        return Manager.getConcurrent();
+    }
+
+    private void runConcurrently(int count, Callable<Void> job) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                futures.add(executor.submit(job));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void concurrentCreateTaskTest() throws Exception {
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+
+        runConcurrently(THREADS, () -> {
+            for (int i = 0; i < 1_000; i++) {
+                ids.add(taskManager.createTask(new Task("task", "description")));
+            }
+            return null;
+        });
+
+        assertEquals(THREADS * 1_000, ids.size());
+        assertEquals(THREADS * 1_000, taskManager.getTasks().size());
+    }
+
+    @Test
+    void concurrentCreateOverlappingTaskTest() throws Exception {
+        Instant base = Instant.parse("2022-01-01T00:00:00Z");
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(THREADS, () -> {
+            for (int i = 0; i < 500; i++) {
+                Task task = new Task("task", "description",
+                        base.plus(Duration.ofHours(i)), Duration.ofMinutes(30));
+                try {
+                    taskManager.createTask(task);
+                } catch (TaskHasInteractionException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+            return null;
+        });
+
+        assertEquals(500, taskManager.getPrioritizedTasks().size());
+        assertEquals((THREADS - 1) * 500, rejected.get());
+    }
+
+    @Test
+    void concurrentSubtaskUpdatesKeepEpicConsistentTest() throws Exception {
+        int epicId = taskManager.createEpic(new Epic("epic", "description"));
+        List<Integer> subtaskIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            subtaskIds.add(taskManager.createSubtask(new Subtask("subtask", "description", epicId)));
+        }
+        AtomicInteger next = new AtomicInteger();
+
+        runConcurrently(THREADS, () -> {
+            int subtaskId = subtaskIds.get(next.getAndIncrement());
+            for (int i = 0; i < 1_000; i++) {
+                Status status = i % 2 == 0 ? Status.IN_PROGRESS : Status.DONE;
+                taskManager.updateSubtask(new Subtask(subtaskId, null, null, status, epicId));
+                taskManager.getSubtask(subtaskId);
+                taskManager.getEpic(epicId);
+                taskManager.getTaskFromEpic(epicId);
+            }
+            return null;
+        });
+
+        assertEquals(Status.DONE, taskManager.getEpic(epicId).getStatus());
+        assertEquals(new HashSet<>(subtaskIds), new HashSet<>(taskManager.getEpic(epicId).getSubtasks()));
+        assertEquals(THREADS + 1, taskManager.getHistory().size());
+    }
+
+    @Test
+    void concurrentRemoveAndReadTest() throws Exception {
+        for (int i = 0; i < THREADS * 500; i++) {
+            taskManager.createTask(new Task("task", "description"));
+        }
+        AtomicInteger next = new AtomicInteger(1);
+
+        runConcurrently(THREADS, () -> {
+            for (int i = 0; i < 500; i++) {
+                int id = next.getAndIncrement();
+                taskManager.getTask(id);
+                taskManager.removeTask(id);
+                taskManager.getTasks();
+                taskManager.getHistory();
+            }
+            return null;
+        });
+
+        assertTrue(taskManager.getTasks().isEmpty());
+        assertTrue(taskManager.getHistory().isEmpty());
+    }
+
+    @Test
+    void readersGetConsistentSnapshotsTest() throws Exception {
+        Instant base = Instant.parse("2022-01-01T00:00:00Z");
+        int epicId = taskManager.createEpic(new Epic("epic", "description"));
+        int subtaskId = taskManager.createSubtask(new Subtask(0, "subtask", "description", Status.NEW,
+                base, Duration.ofMinutes(10), epicId));
+        Epic before = taskManager.getEpics().get(0);
+        AtomicInteger next = new AtomicInteger();
+
+        runConcurrently(THREADS, () -> {
+            boolean writer = next.getAndIncrement() == 0;
+            for (int i = 0; i < 2_000; i++) {
+                if (writer) {
+                    taskManager.updateSubtask(new Subtask(subtaskId, null, null, Status.IN_PROGRESS,
+                            base.plus(Duration.ofHours(i)), Duration.ofMinutes(10 + i % 50), epicId));
+                } else {
+                    for (Epic epic : taskManager.getEpicsView()) {
+                        Instant start = epic.getStartTime().orElseThrow();
+                        assertEquals(epic.getEndTime().orElseThrow(), start.plus(epic.getDuration().orElseThrow()));
+                    }
+                }
+            }
+            return null;
+        });
+
+        assertEquals(Status.NEW, before.getStatus());
+        assertEquals(base, before.getStartTime().orElseThrow());
+        assertEquals(List.of(subtaskId), before.getSubtasks());
+        assertEquals(Status.IN_PROGRESS, taskManager.getEpic(epicId).getStatus());
+    }
+}
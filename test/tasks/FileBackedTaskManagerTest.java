@@ -3,8 +3,18 @@ package tasks;
 import org.junit.jupiter.api.Test;
 import utils.Manager;
 
+import utils.exceptions.TaskHasInteractionException;
+import utils.exceptions.ManagerSaveException;
+import utils.exceptions.TaskNotFoundException;
+
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -169,4 +179,343 @@ class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
         assertTrue(fbtm.getEpic(epic2Id).getSubtasks().isEmpty());
         assertArrayEquals(subtasksIdEtalon, subtasksIdFromFile);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testReadPrioritizedFromFile() {
+        Task task = new Task("task", "desc for task",
+                Instant.parse("2022-01-01T10:00:00Z"), Duration.ofMinutes(60));
+        taskManager.createTask(task);
+
+        FileBackedTaskManager fbtm = FileBackedTaskManager.loadFromFile(f);
+
+        assertEquals(1, fbtm.getPrioritizedTasks().size());
+
+        Task overlapping = new Task("task 2", "desc for task2",
+                Instant.parse("2022-01-01T10:30:00Z"), Duration.ofMinutes(60));
+        assertThrows(TaskHasInteractionException.class, () -> fbtm.createTask(overlapping));
+    }
+
+    @Test
+    void testReplayJournalAfterSnapshot() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(f, 3);
+
+        int taskId = manager.createTask(new Task("task", "desc for task"));
+        int epicId = manager.createEpic(new Epic("epic", "desc for epic"));
+        int subtask1Id = manager.createSubtask(new Subtask("subtask1", "desc for subtask1", epicId));
+        int subtask2Id = manager.createSubtask(new Subtask("subtask2", "desc for subtask2", epicId));
+        manager.updateSubtask(new Subtask(subtask1Id, "subtask1 updated", "desc for subtask1",
+                Status.DONE, Instant.parse("2022-01-01T10:00:00Z"), Duration.ofMinutes(30), epicId));
+        manager.getSubtask(subtask1Id);
+        manager.getTask(taskId);
+        manager.getEpic(epicId);
+        manager.removeSubtask(subtask2Id);
+        manager.updateTask(new Task(taskId, "task updated", "desc for task", Status.IN_PROGRESS));
+
+        FileBackedTaskManager fbtm = FileBackedTaskManager.loadFromFile(f);
+
+        assertEquals(manager.getTasks(), fbtm.getTasks());
+        assertEquals(manager.getEpics(), fbtm.getEpics());
+        assertEquals(manager.getSubtasks(), fbtm.getSubtasks());
+        assertEquals(manager.getHistory(), fbtm.getHistory());
+        assertEquals(Status.DONE, fbtm.getEpic(epicId).getStatus());
+        assertEquals(manager.getEpic(epicId).getEndTime(), fbtm.getEpic(epicId).getEndTime());
+    }
+
+    @Test
+    void testReplayJournalWithTornTail() throws IOException {
+        FileBackedTaskManager manager = new FileBackedTaskManager(f, 100);
+        int taskId = manager.createTask(new Task("task", "desc for task"));
+        manager.createTask(new Task("task 2", "desc for task2"));
+        File journal = new File(f.getPath() + ".journal");
+        long intactLength = journal.length();
+
+        Files.writeString(journal.toPath(), "PUT,3,Ta", StandardOpenOption.APPEND);
+        FileBackedTaskManager fbtm = FileBackedTaskManager.loadFromFile(f);
+
+        assertEquals(manager.getTasks(), fbtm.getTasks());
+        assertEquals(intactLength, journal.length());
+
+        Files.writeString(journal.toPath(), "PUT,3,Ta\n", StandardOpenOption.APPEND);
+        fbtm = FileBackedTaskManager.loadFromFile(f);
+
+        assertEquals(manager.getTasks(), fbtm.getTasks());
+        assertEquals(intactLength, journal.length());
+
+        fbtm.updateTask(new Task(taskId, "task updated", "desc for task", Status.DONE));
+        assertEquals("task updated", FileBackedTaskManager.loadFromFile(f).getTask(taskId).getName());
+    }
+
+    @Test
+    void testRejectCorruptedJournalRecord() throws IOException {
+        FileBackedTaskManager manager = new FileBackedTaskManager(f, 100);
+        manager.createTask(new Task("task", "desc for task"));
+        manager.createTask(new Task("task 2", "desc for task2"));
+        File journal = new File(f.getPath() + ".journal");
+        String records = Files.readString(journal.toPath());
+
+        Files.writeString(journal.toPath(), "PUT,3,Ta\n" + records);
+
+        assertThrows(ManagerSaveException.class, () -> FileBackedTaskManager.loadFromFile(f));
+    }
+
+    @Test
+    void testCompactHistoryLog() throws IOException {
+        FileBackedTaskManager manager = new FileBackedTaskManager(f, 3);
+        int firstId = manager.createTask(new Task("task 1", "desc for task1"));
+        int secondId = manager.createTask(new Task("task 2", "desc for task2"));
+        for (int i = 0; i < 4; i++) {
+            manager.getTask(firstId);
+            manager.getTask(secondId);
+        }
+
+        File history = new File(f.getPath() + ".history");
+        assertEquals("VIEW," + firstId + "\nVIEW," + secondId + "\n", Files.readString(history.toPath()));
+        assertFalse(new File(history.getPath() + ".tmp").exists());
+        assertEquals(manager.getHistory(), FileBackedTaskManager.loadFromFile(f).getHistory());
+    }
+
+    @Test
+    void testGroupCommitFlush() {
+        FileBackedTaskManager manager = Manager.getGroupCommitFileTaskManager(f, 60_000, 100);
+
+        manager.createTask(new Task("task 1", "desc for task1"));
+        manager.createTask(new Task("task 2", "desc for task2"));
+        manager.createTask(new Task("task 3", "desc for task3"));
+
+        assertEquals(1, FileBackedTaskManager.loadFromFile(f).getTasks().size());
+
+        manager.flush();
+
+        assertEquals(3, FileBackedTaskManager.loadFromFile(f).getTasks().size());
+
+        manager.createTask(new Task("task 4", "desc for task4"));
+        manager.close();
+
+        assertEquals(4, FileBackedTaskManager.loadFromFile(f).getTasks().size());
+    }
+
+    @Test
+    void testWriteThroughAfterClose() {
+        FileBackedTaskManager manager = Manager.getGroupCommitFileTaskManager(f, 60_000, 100);
+
+        manager.createTask(new Task("task 1", "desc for task1"));
+        manager.createTask(new Task("task 2", "desc for task2"));
+        manager.close();
+        int taskId = manager.createTask(new Task("task 3", "desc for task3"));
+        manager.getTask(taskId);
+
+        FileBackedTaskManager fbtm = FileBackedTaskManager.loadFromFile(f);
+        assertEquals(3, fbtm.getTasks().size());
+        assertEquals(List.of(manager.getTask(taskId)), fbtm.getHistory());
+    }
+
+    @Test
+    void testGroupCommitBatchSize() {
+        FileBackedTaskManager manager = Manager.getGroupCommitFileTaskManager(f, 60_000, 2);
+
+        manager.createTask(new Task("task 1", "desc for task1"));
+        manager.createTask(new Task("task 2", "desc for task2"));
+        manager.createTask(new Task("task 3", "desc for task3"));
+
+        assertEquals(3, FileBackedTaskManager.loadFromFile(f).getTasks().size());
+        manager.close();
+    }
+
+    @Test
+    void testReadDoesNotRewriteSnapshot() {
+        int taskId = taskManager.createTask(new Task("task", "desc for task"));
+        long snapshotModified = f.lastModified();
+        long snapshotLength = f.length();
+        File journal = new File(f.getPath() + ".journal");
+        long journalLength = journal.length();
+
+        for (int i = 0; i < 2_000; i++) {
+            taskManager.getTask(taskId);
+        }
+
+        assertEquals(snapshotModified, f.lastModified());
+        assertEquals(snapshotLength, f.length());
+        assertEquals(journalLength, journal.length());
+
+        FileBackedTaskManager fbtm = FileBackedTaskManager.loadFromFile(f);
+        assertEquals(List.of(taskManager.getTask(taskId)), fbtm.getHistory());
+    }
+
+    @Test
+    void testReadPagesFromFile() {
+        int taskId1 = taskManager.createTask(new Task("task1", "desc for task1"));
+        int epicId = taskManager.createEpic(new Epic("epic", "desc for epic"));
+        int subtaskId = taskManager.createSubtask(new Subtask("subtask", "desc for subtask", epicId));
+        int taskId2 = taskManager.createTask(new Task("task2", "desc for task2"));
+
+        FileBackedTaskManager fbtm = FileBackedTaskManager.loadFromFile(f);
+
+        assertEquals(List.of(taskId1, taskId2), fbtm.getTasksPage(0, 10).stream().map(Task::getId).toList());
+        assertEquals(List.of(taskId2), fbtm.getTasksPage(taskId1, 10).stream().map(Task::getId).toList());
+        assertEquals(List.of(epicId), fbtm.getEpicsPage(0, 10).stream().map(Task::getId).toList());
+        assertEquals(List.of(subtaskId), fbtm.getSubtasksPage(0, 10).stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void testParallelLoadMatchesSequential() {
+        Instant base = Instant.parse("2022-01-01T00:00:00Z");
+        List<Integer> epicIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            epicIds.add(taskManager.createEpic(new Epic("эпик " + i, "desc for epic " + i)));
+        }
+        for (int i = 0; i < 5_000; i++) {
+            Instant startTime = i % 3 == 0 ? null : base.plus(Duration.ofHours(i));
+            Duration duration = i % 3 == 0 ? null : Duration.ofMinutes(30);
+            if (i % 2 == 0) {
+                taskManager.createTask(new Task(0, "задача " + i, "desc for task " + i,
+                        Status.values()[i % 3], startTime, duration));
+            } else {
+                taskManager.createSubtask(new Subtask(0, "подзадача " + i, "desc for subtask " + i,
+                        Status.values()[i % 3], startTime, duration, epicIds.get(i % epicIds.size())));
+            }
+        }
+        for (int i = 0; i < 20; i++) {
+            taskManager.getEpic(epicIds.get(i));
+        }
+        taskManager.getTask(taskManager.getTasks().get(0).getId());
+
+        FileBackedTaskManager sequential = FileBackedTaskManager.loadFromFile(f);
+        FileBackedTaskManager parallel = FileBackedTaskManager.loadFromFileParallel(f);
+
+        assertEquals(sequential.getTasks(), parallel.getTasks());
+        assertEquals(sequential.getEpics(), parallel.getEpics());
+        assertEquals(sequential.getSubtasks(), parallel.getSubtasks());
+        assertEquals(sequential.getHistory(), parallel.getHistory());
+        assertEquals(new ArrayList<>(sequential.getPrioritizedTasks()), new ArrayList<>(parallel.getPrioritizedTasks()));
+        for (Epic epic : sequential.getEpics()) {
+            Epic loaded = parallel.getEpics().stream().filter(e -> e.getId() == epic.getId()).findFirst().orElseThrow();
+            assertEquals(epic.getSubtasks(), loaded.getSubtasks());
+            assertEquals(epic.getStatus(), loaded.getStatus());
+            assertEquals(epic.getStartTime(), loaded.getStartTime());
+            assertEquals(epic.getEndTime(), loaded.getEndTime());
+            assertEquals(epic.getDuration(), loaded.getDuration());
+        }
+        assertEquals(sequential.createTask(new Task("next", "desc")), parallel.createTask(new Task("next", "desc")));
+    }
+
+    @Test
+    void testParallelLoadEmptyFile() {
+        FileBackedTaskManager fbtm = FileBackedTaskManager.loadFromFileParallel(f);
+
+        assertTrue(fbtm.getTasks().isEmpty());
+        assertTrue(fbtm.getEpics().isEmpty());
+        assertTrue(fbtm.getHistory().isEmpty());
+    }
+
+    @Test
+    void testSnapshotChecksum() throws IOException {
+        taskManager.createTask(new Task("task", "desc for task"));
+        taskManager.createEpic(new Epic("epic", "desc for epic"));
+
+        List<String> lines = Files.readAllLines(f.toPath());
+        assertTrue(lines.get(lines.size() - 1).startsWith("#crc32c:"));
+        assertFalse(new File(f.getPath() + ".tmp").exists());
+
+        byte[] snapshot = Files.readAllBytes(f.toPath());
+        snapshot[snapshot.length / 2] ^= 1;
+        Files.write(f.toPath(), snapshot);
+
+        assertThrows(ManagerSaveException.class, () -> FileBackedTaskManager.loadFromFile(f));
+        assertThrows(ManagerSaveException.class, () -> FileBackedTaskManager.loadFromFileParallel(f));
+    }
+
+    @Test
+    void testReadSnapshotWithoutChecksum() throws IOException {
+        Files.writeString(f.toPath(), "id,type,name,description,status,startTime,duration,epicId\n" +
+                "1,Task,task,desc for task,NEW,,,\n" +
+                "\n" +
+                "1");
+
+        FileBackedTaskManager fbtm = FileBackedTaskManager.loadFromFile(f);
+
+        assertEquals(1, fbtm.getTasks().size());
+        assertEquals(1, fbtm.getHistory().size());
+    }
+
+    @Test
+    void testBoundedHistoryFromProperty() {
+        System.setProperty(Manager.HISTORY_MAX_SIZE_PROPERTY, "2");
+        try {
+            FileBackedTaskManager manager = Manager.getFileTaskManager(f);
+            int task1Id = manager.createTask(new Task("task1", "desc for task1"));
+            int task2Id = manager.createTask(new Task("task2", "desc for task2"));
+            int task3Id = manager.createTask(new Task("task3", "desc for task3"));
+            manager.getTask(task1Id);
+            manager.getTask(task2Id);
+            manager.getTask(task3Id);
+
+            FileBackedTaskManager fbtm = FileBackedTaskManager.loadFromFile(f);
+
+            assertEquals(List.of(task2Id, task3Id), fbtm.getHistory().stream().map(Task::getId).toList());
+            assertEquals(manager.getHistory(), fbtm.getHistory());
+        } finally {
+            System.clearProperty(Manager.HISTORY_MAX_SIZE_PROPERTY);
+        }
+    }
+
+    @Test
+    void testBatchFlushesOnce() throws IOException {
+        FileBackedTaskManager manager = new FileBackedTaskManager(f, 100);
+        manager.createEpic(new Epic("epic", "desc for epic"));
+        File journal = new File(f.getPath() + ".journal");
+
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            batch.add(new Task("task " + i, "desc for task"));
+        }
+        manager.createTasks(batch);
+
+        assertEquals(50, Files.readAllLines(journal.toPath()).size());
+        assertEquals(manager.getTasks(), FileBackedTaskManager.loadFromFile(f).getTasks());
+
+        batch.clear();
+        for (int i = 0; i < 100; i++) {
+            batch.add(new Task("task " + i, "desc for task"));
+        }
+        manager.createTasks(batch);
+
+        assertFalse(journal.exists());
+        assertEquals(manager.getTasks(), FileBackedTaskManager.loadFromFile(f).getTasks());
+
+        long snapshotLength = f.length();
+        assertThrows(TaskNotFoundException.class, () -> manager.applyBatch(List.of(new BatchOperation(-1))));
+        assertEquals(snapshotLength, f.length());
+        assertFalse(journal.exists());
+    }
+
+    @Test
+    void testStatusIndexFromFile() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(f, 2);
+        int taskId = manager.createTask(new Task("task", "desc for task"));
+        int epicId = manager.createEpic(new Epic("epic", "desc for epic"));
+        int subtaskId = manager.createSubtask(new Subtask("subtask", "desc for subtask", epicId));
+        manager.createSubtask(new Subtask("subtask2", "desc for subtask2", epicId));
+        manager.updateSubtask(new Subtask(subtaskId, null, null, Status.DONE, null, null, epicId));
+        manager.updateTask(new Task(taskId, null, null, Status.IN_PROGRESS));
+
+        FileBackedTaskManager fbtm = FileBackedTaskManager.loadFromFile(f);
+
+        assertStatusIndexes(fbtm);
+        assertEquals(manager.getEpicsByStatus(Status.IN_PROGRESS), fbtm.getEpicsByStatus(Status.IN_PROGRESS));
+        assertEquals(List.of(fbtm.getTask(taskId)), fbtm.getTasksByStatus(Status.IN_PROGRESS));
+    }
+
+    @Test
+    void testSearchIndexFromFile() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(f, 2);
+        int taskId = manager.createTask(new Task("task report", "desc for task"));
+        int epicId = manager.createEpic(new Epic("epic", "desc for epic"));
+        manager.createSubtask(new Subtask("subtask", "desc for subtask", epicId));
+        manager.updateEpic(new Epic(epicId, "epic report", null));
+
+        FileBackedTaskManager fbtm = FileBackedTaskManager.loadFromFile(f);
+
+        assertEquals(manager.search("report", 10), fbtm.search("report", 10));
+        assertEquals(List.of(epicId, taskId), fbtm.search("report epic", 10));
+    }
+}
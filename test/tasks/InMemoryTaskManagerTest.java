@@ -6,8 +6,14 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import utils.Manager;
 
+import utils.exceptions.TaskHasInteractionException;
+
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
 
 class InMemoryTaskManagerTest extends TaskManagerTest<InMemoryTaskManager> {
     @Override
@@ -108,4 +114,78 @@ class InMemoryTaskManagerTest extends TaskManagerTest<InMemoryTaskManager> {
         assertEquals(Instant.parse("2022-01-01T09:00:00Z"), epic.getStartTime().get());
         assertEquals(Instant.parse("2022-01-01T22:05:00Z"), epic.getEndTime().get());
     }
-}
\ No newline at end of file
+
+    @Test
+    void checkTaskTimeMatchesIsIntersectTest() {
+        Random random = new Random(42);
+        Instant base = Instant.parse("2022-01-01T00:00:00Z");
+        List<Task> created = new ArrayList<>();
+
+        for (int i = 0; i < 500; i++) {
+            Task task = new Task("task " + i, "description " + i,
+                    base.plus(Duration.ofMinutes(random.nextInt(10_000))),
+                    Duration.ofMinutes(random.nextInt(120)));
+
+            boolean expected = created.stream().noneMatch(t -> taskManager.isIntersect(t, task));
+            if (expected) {
+                taskManager.createTask(task);
+                created.add(task);
+            } else {
+                assertThrows(TaskHasInteractionException.class, () -> taskManager.createTask(task));
+            }
+        }
+
+        assertEquals(created.size(), taskManager.getPrioritizedTasks().size());
+    }
+
+    @Test
+    void incrementalEpicAggregatesTest() {
+        Random random = new Random(7);
+        Instant base = Instant.parse("2022-01-01T00:00:00Z");
+        Status[] statuses = Status.values();
+        int epicId = taskManager.createEpic(new Epic("epic name", "epic description"));
+        List<Integer> subtaskIds = new ArrayList<>();
+
+        for (int i = 0; i < 300; i++) {
+            int action = random.nextInt(3);
+            Instant startTime = random.nextBoolean() ? base.plus(Duration.ofDays(i)) : null;
+            Duration duration = random.nextBoolean() ? Duration.ofMinutes(1 + random.nextInt(100)) : null;
+            Status status = statuses[random.nextInt(statuses.length)];
+
+            if (action == 0 || subtaskIds.isEmpty()) {
+                subtaskIds.add(taskManager.createSubtask(new Subtask(0, "subtask", "subtask description",
+                        status, startTime, duration, epicId)));
+            } else if (action == 1) {
+                int subtaskId = subtaskIds.get(random.nextInt(subtaskIds.size()));
+                taskManager.updateSubtask(new Subtask(subtaskId, "subtask", "subtask description",
+                        status, startTime, duration, epicId));
+            } else {
+                taskManager.removeSubtask(subtaskIds.remove(random.nextInt(subtaskIds.size())));
+            }
+
+            assertEpicMatchesSubtasks(taskManager.getEpic(epicId));
+        }
+    }
+
+    private void assertEpicMatchesSubtasks(Epic epic) {
+        List<Subtask> epicSubtasks = taskManager.getTaskFromEpic(epic.getId());
+
+        Status expectedStatus = Status.IN_PROGRESS;
+        if (epicSubtasks.stream().allMatch(s -> s.getStatus() == Status.NEW)) {
+            expectedStatus = Status.NEW;
+        }
+        if (!epicSubtasks.isEmpty() && epicSubtasks.stream().allMatch(s -> s.getStatus() == Status.DONE)) {
+            expectedStatus = Status.DONE;
+        }
+        Duration expectedDuration = epicSubtasks.stream()
+                .map(s -> s.getDuration().orElse(Duration.ZERO))
+                .reduce(Duration.ZERO, Duration::plus);
+
+        assertEquals(expectedStatus, epic.getStatus());
+        assertEquals(expectedDuration.isZero() ? Optional.empty() : Optional.of(expectedDuration), epic.getDuration());
+        assertEquals(epicSubtasks.stream().flatMap(s -> s.getStartTime().stream()).min(Instant::compareTo),
+                epic.getStartTime());
+        assertEquals(epicSubtasks.stream().flatMap(s -> s.getEndTime().stream()).max(Instant::compareTo),
+                epic.getEndTime());
+    }
+}
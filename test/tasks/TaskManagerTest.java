@@ -1,5 +1,7 @@
 package tasks;
 
+import utils.exceptions.EpicMatchException;
+import utils.exceptions.EventsTruncatedException;
 import utils.exceptions.TaskHasInteractionException;
 import utils.exceptions.TaskNotFoundException;
 
@@ -8,9 +10,13 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -245,4 +251,438 @@ public abstract class TaskManagerTest<T extends TaskManager> {
 
         assertEquals(etalon, taskManager.getPrioritizedTasks());
     }
+
+    @Test
+    void updateTaskTimeReleasesOldSlotTest() {
+        Task task1 = new Task("Task1", "Task 1 Description",
+                Instant.parse("2022-01-01T10:00:00Z"), Duration.ofMinutes(60));
+        Task task2 = new Task("Task2", "Task 2 Description",
+                Instant.parse("2022-01-01T12:00:00Z"), Duration.ofMinutes(60));
+        int task1Id = taskManager.createTask(task1);
+        int task2Id = taskManager.createTask(task2);
+
+        Task movedToTask1 = new Task(task2Id, "Task2", "Task 2 Description", Status.NEW,
+                Instant.parse("2022-01-01T10:30:00Z"), Duration.ofMinutes(60));
+        assertThrows(TaskHasInteractionException.class, () -> taskManager.updateTask(movedToTask1));
+
+        Task movedAway = new Task(task1Id, "Task1", "Task 1 Description", Status.NEW,
+                Instant.parse("2022-01-01T14:00:00Z"), Duration.ofMinutes(60));
+        taskManager.updateTask(movedAway);
+
+        Task task3 = new Task("Task3", "Task 3 Description",
+                Instant.parse("2022-01-01T10:00:00Z"), Duration.ofMinutes(60));
+        taskManager.createTask(task3);
+
+        Task task4 = new Task("Task4", "Task 4 Description",
+                Instant.parse("2022-01-01T14:30:00Z"), Duration.ofMinutes(10));
+        assertThrows(TaskHasInteractionException.class, () -> taskManager.createTask(task4));
+
+        assertEquals(3, taskManager.getPrioritizedTasks().size());
+        assertEquals(task3, taskManager.getPrioritizedTasks().first());
+        assertEquals(task1, taskManager.getPrioritizedTasks().last());
+    }
+
+    @Test
+    void readOnlyViewsTest() {
+        Task task = new Task("Task1", "Task 1 Description",
+                Instant.parse("2022-01-01T10:00:00Z"), Duration.ofMinutes(60));
+        int taskId = taskManager.createTask(task);
+        int epicId = taskManager.createEpic(new Epic("Epic1", "Epic 1 Description"));
+        int subtaskId = taskManager.createSubtask(new Subtask("Subtask1", "Subtask 1 Description", epicId));
+        taskManager.getTask(taskId);
+        taskManager.getSubtask(subtaskId);
+
+        Collection<Task> tasksView = taskManager.getTasksView();
+        assertEquals(taskManager.getTasks(), new ArrayList<>(tasksView));
+        assertEquals(taskManager.getEpics(), new ArrayList<>(taskManager.getEpicsView()));
+        assertEquals(taskManager.getSubtasks(), new ArrayList<>(taskManager.getSubtasksView()));
+        assertEquals(taskManager.getHistory(), new ArrayList<>(taskManager.getHistoryView()));
+        assertEquals(taskManager.getPrioritizedTasks(), taskManager.getPrioritizedTasksView());
+
+        taskManager.createTask(new Task("Task2", "Task 2 Description"));
+        assertEquals(2, tasksView.size());
+
+        assertThrows(UnsupportedOperationException.class, () -> tasksView.remove(task));
+        assertThrows(UnsupportedOperationException.class, () -> taskManager.getEpicsView().clear());
+        assertThrows(UnsupportedOperationException.class, () -> taskManager.getSubtasksView().clear());
+        assertThrows(UnsupportedOperationException.class, () -> taskManager.getHistoryView().clear());
+        assertThrows(UnsupportedOperationException.class, () -> taskManager.getPrioritizedTasksView().add(task));
+    }
+
+    @Test
+    void prioritizedPageTiedStartTest() {
+        Instant start = Instant.parse("2022-01-01T10:00:00Z");
+        int firstId = taskManager.createTask(new Task("first", "desc", start, Duration.ZERO));
+        int secondId = taskManager.createTask(new Task("second", "desc", start, Duration.ZERO));
+        int thirdId = taskManager.createTask(new Task("third", "desc", start.plusSeconds(3600), Duration.ZERO));
+
+        List<Integer> seen = new ArrayList<>();
+        Instant after = null;
+        int afterId = 0;
+        while (true) {
+            List<Task> page = taskManager.getPrioritizedTasksPage(after, afterId, 1);
+            if (page.isEmpty()) {
+                break;
+            }
+            Task last = page.get(page.size() - 1);
+            seen.add(last.getId());
+            after = last.getStartTime().orElseThrow();
+            afterId = last.getId();
+        }
+
+        assertEquals(List.of(firstId, secondId, thirdId), seen);
+        assertEquals(List.of(thirdId), taskManager.getPrioritizedTasksPage(start, Integer.MAX_VALUE, 10)
+                .stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void pagesTest() {
+        List<Integer> taskIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            taskIds.add(taskManager.createTask(new Task("Task" + i, "Task Description",
+                    Instant.parse("2022-01-01T10:00:00Z").plus(Duration.ofHours(5 - i)), Duration.ofMinutes(30))));
+        }
+        int epicId = taskManager.createEpic(new Epic("Epic1", "Epic 1 Description"));
+        int subtaskId = taskManager.createSubtask(new Subtask("Subtask1", "Subtask 1 Description", epicId));
+        taskManager.removeTask(taskIds.get(2));
+
+        List<Task> firstPage = taskManager.getTasksPage(0, 2);
+        assertEquals(List.of(taskIds.get(0), taskIds.get(1)), firstPage.stream().map(Task::getId).toList());
+
+        List<Task> secondPage = taskManager.getTasksPage(firstPage.get(1).getId(), 2);
+        assertEquals(List.of(taskIds.get(3), taskIds.get(4)), secondPage.stream().map(Task::getId).toList());
+        assertTrue(taskManager.getTasksPage(taskIds.get(4), 2).isEmpty());
+
+        assertEquals(List.of(epicId), taskManager.getEpicsPage(0, 10).stream().map(Task::getId).toList());
+        assertEquals(List.of(subtaskId), taskManager.getSubtasksPage(epicId, 10).stream().map(Task::getId).toList());
+        assertTrue(taskManager.getSubtasksPage(subtaskId, 10).isEmpty());
+
+        List<Task> prioritized = new ArrayList<>(taskManager.getPrioritizedTasks());
+        assertEquals(prioritized.subList(0, 3), taskManager.getPrioritizedTasksPage(null, 0, 3));
+        assertEquals(prioritized.subList(2, 4), taskManager.getPrioritizedTasksPage(
+                prioritized.get(1).getStartTime().orElseThrow(), prioritized.get(1).getId(), 2));
+
+        taskManager.removeAllTask();
+        assertTrue(taskManager.getTasksPage(0, 10).isEmpty());
+        taskManager.removeAllEpic();
+        assertTrue(taskManager.getEpicsPage(0, 10).isEmpty());
+        assertTrue(taskManager.getSubtasksPage(0, 10).isEmpty());
+    }
+
+    @Test
+    void limitedTimeRangeTest() {
+        Instant start = Instant.parse("2022-01-01T10:00:00Z");
+        for (int i = 0; i < 6; i++) {
+            taskManager.createTask(new Task("Task" + i, "Task Description",
+                    start.plus(Duration.ofHours(2L * i)), Duration.ofMinutes(90)));
+        }
+        List<Task> prioritized = new ArrayList<>(taskManager.getPrioritizedTasks());
+
+        Instant from = start.plus(Duration.ofMinutes(30));
+        Instant to = start.plus(Duration.ofDays(1));
+        assertEquals(prioritized.subList(0, 1), taskManager.getTasksBetween(from, to, 1));
+        assertEquals(prioritized.subList(0, 3), taskManager.getTasksBetween(from, to, 3));
+        assertEquals(prioritized, taskManager.getTasksBetween(from, to, 10));
+        assertEquals(prioritized.subList(1, 3), taskManager.getTasksBetween(start.plus(Duration.ofHours(2)), to, 2));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.getTasksBetween(from, to, 0));
+    }
+
+    @Test
+    void timeRangeTest() {
+        Instant start = Instant.parse("2022-01-01T10:00:00Z");
+        for (int i = 0; i < 6; i++) {
+            taskManager.createTask(new Task("Task" + i, "Task Description",
+                    start.plus(Duration.ofHours(2L * (5 - i))), Duration.ofMinutes(90)));
+        }
+        taskManager.createTask(new Task("Task without time", "Task Description"));
+        List<Task> prioritized = new ArrayList<>(taskManager.getPrioritizedTasks());
+
+        Instant from = prioritized.get(1).getStartTime().orElseThrow().plus(Duration.ofMinutes(10));
+        Instant to = prioritized.get(4).getStartTime().orElseThrow();
+        assertEquals(prioritized.subList(1, 4), taskManager.getTasksBetween(from, to));
+        assertEquals(prioritized.subList(2, 4),
+                taskManager.getTasksBetween(prioritized.get(1).getEndTime().orElseThrow(), to));
+        assertTrue(taskManager.getTasksBetween(to, to).isEmpty());
+        assertTrue(taskManager.getTasksBetween(Instant.EPOCH, Instant.EPOCH.plusSeconds(1)).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> taskManager.getTasksBetween(to, from));
+
+        Task enclosing = new Task("Enclosing task", "Task Description",
+                prioritized.get(0).getStartTime().orElseThrow().minus(Duration.ofMinutes(10)), Duration.ofMinutes(235));
+        taskManager.createTask(enclosing);
+        Instant inside = prioritized.get(1).getStartTime().orElseThrow().plus(Duration.ofMinutes(10));
+        assertEquals(List.of(enclosing, prioritized.get(1)), taskManager.getTasksBetween(inside, inside.plusSeconds(1)));
+        taskManager.removeTask(enclosing.getId());
+
+        assertEquals(prioritized.subList(4, 6), taskManager.getNextTasks(to, 10));
+        assertEquals(prioritized.subList(0, 2), taskManager.getNextTasks(Instant.EPOCH, 2));
+        assertTrue(taskManager.getNextTasks(prioritized.get(5).getEndTime().orElseThrow(), 10).isEmpty());
+    }
+
+    @Test
+    void findFreeSlotTest() {
+        Instant start = Instant.parse("2022-01-01T10:00:00Z");
+        taskManager.createTask(new Task("Task1", "Task Description", start, Duration.ofMinutes(60)));
+        taskManager.createTask(new Task("Task2", "Task Description",
+                start.plus(Duration.ofMinutes(90)), Duration.ofMinutes(60)));
+        taskManager.createTask(new Task("Task3", "Task Description",
+                start.plus(Duration.ofMinutes(180)), Duration.ofMinutes(30)));
+        taskManager.createTask(new Task("Task without time", "Task Description"));
+
+        assertEquals(start.minus(Duration.ofHours(1)),
+                taskManager.findFreeSlot(Duration.ofMinutes(30), start.minus(Duration.ofHours(1))));
+        assertEquals(start.plus(Duration.ofMinutes(60)),
+                taskManager.findFreeSlot(Duration.ofMinutes(30), start.plus(Duration.ofMinutes(10))));
+        assertEquals(start.plus(Duration.ofMinutes(150)),
+                taskManager.findFreeSlot(Duration.ofMinutes(30), start.plus(Duration.ofMinutes(70))));
+        assertEquals(start.plus(Duration.ofMinutes(210)),
+                taskManager.findFreeSlot(Duration.ofMinutes(45), start.minus(Duration.ofMinutes(10))));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.findFreeSlot(Duration.ZERO, start));
+
+        Duration duration = Duration.ofMinutes(40);
+        Instant slot = taskManager.findFreeSlot(duration, start);
+        assertDoesNotThrow(() -> taskManager.createTask(new Task("Task4", "Task Description", slot, duration)));
+    }
+
+    @Test
+    void batchTest() {
+        Instant start = Instant.parse("2022-01-01T10:00:00Z");
+        int epicId = taskManager.createEpic(new Epic("Epic1", "Epic 1 Description"));
+        List<Integer> ids = taskManager.createTasks(List.of(
+                new Task("Task1", "Task Description", start, Duration.ofMinutes(30)),
+                new Task("Task2", "Task Description", start.plus(Duration.ofHours(1)), Duration.ofMinutes(30)),
+                new Task("Task3", "Task Description")));
+
+        assertEquals(3, taskManager.getTasks().size());
+        assertEquals("Task2", taskManager.getTask(ids.get(1)).getName());
+
+        SortedSet<Task> prioritized = taskManager.getPrioritizedTasks();
+        Instant free = start.plus(Duration.ofHours(2));
+        assertThrows(TaskHasInteractionException.class, () -> taskManager.createTasks(List.of(
+                new Task("Task4", "Task Description", free, Duration.ofMinutes(30)),
+                new Task("Task5", "Task Description", free.plus(Duration.ofMinutes(10)), Duration.ofMinutes(30)))));
+        assertEquals(3, taskManager.getTasks().size());
+        assertEquals(prioritized, taskManager.getPrioritizedTasks());
+        assertEquals(free, taskManager.findFreeSlot(Duration.ofMinutes(30), free));
+
+        assertThrows(TaskNotFoundException.class, () -> taskManager.createSubtasks(List.of(
+                new Subtask("Subtask1", "Subtask Description", epicId),
+                new Subtask("Subtask2", "Subtask Description", epicId + 100))));
+        assertTrue(taskManager.getSubtasks().isEmpty());
+        int subtaskId = taskManager.createSubtasks(List.of(new Subtask("Subtask1", "Subtask Description", epicId))).get(0);
+
+        List<Integer> applied = taskManager.applyBatch(List.of(
+                new BatchOperation(ids.get(1)),
+                new BatchOperation(BatchOperation.Action.UPDATE, new Task(ids.get(0), "Task1 moved", null,
+                        Status.DONE, start.plus(Duration.ofHours(1)), null)),
+                new BatchOperation(BatchOperation.Action.CREATE,
+                        new Task("Task4", "Task Description", start, Duration.ofMinutes(30)))));
+
+        assertEquals(ids.subList(0, 2), List.of(applied.get(1), applied.get(0)));
+        assertThrows(TaskNotFoundException.class, () -> taskManager.getTask(ids.get(1)));
+        Task moved = taskManager.getTask(ids.get(0));
+        assertEquals("Task1 moved", moved.getName());
+        assertEquals(start.plus(Duration.ofHours(1)), moved.getStartTime().orElseThrow());
+        assertEquals(Duration.ofMinutes(30), moved.getDuration().orElseThrow());
+        assertEquals(start, taskManager.getTask(applied.get(2)).getStartTime().orElseThrow());
+
+        assertThrows(EpicMatchException.class, () -> taskManager.applyBatch(List.of(
+                new BatchOperation(ids.get(2)),
+                new BatchOperation(BatchOperation.Action.UPDATE,
+                        new Subtask(subtaskId, "Subtask1", null, null, null, null, epicId + 1)))));
+        assertEquals("Task3", taskManager.getTask(ids.get(2)).getName());
+
+        assertThrows(TaskNotFoundException.class, () -> taskManager.applyBatch(List.of(
+                new BatchOperation(epicId),
+                new BatchOperation(BatchOperation.Action.CREATE, new Subtask("Subtask2", "Subtask Description", epicId)))));
+        assertEquals(List.of(subtaskId), taskManager.getTaskFromEpic(epicId).stream().map(Task::getId).toList());
+    }
+
+    protected void assertStatusIndexes(TaskManager manager) {
+        for (Status status : Status.values()) {
+            assertEquals(byStatus(manager.getTasks(), status), manager.getTasksByStatus(status));
+            assertEquals(byStatus(manager.getEpics(), status), manager.getEpicsByStatus(status));
+            assertEquals(byStatus(manager.getSubtasks(), status), manager.getSubtasksByStatus(status));
+        }
+    }
+
+    private static <T extends Task> List<T> byStatus(List<T> items, Status status) {
+        return items.stream()
+                .filter(t -> t.getStatus() == status)
+                .sorted(Comparator.comparingInt(Task::getId))
+                .toList();
+    }
+
+    @Test
+    void statusIndexTest() {
+        int taskId = taskManager.createTask(new Task("Task1", "Task Description"));
+        taskManager.createTask(new Task(0, "Task2", "Task Description", Status.DONE));
+        int epicId = taskManager.createEpic(new Epic("Epic1", "Epic 1 Description"));
+        int emptyEpicId = taskManager.createEpic(new Epic("Epic2", "Epic 2 Description"));
+        int subtask1Id = taskManager.createSubtask(new Subtask("Subtask1", "Subtask 1 Description", epicId));
+        int subtask2Id = taskManager.createSubtask(new Subtask("Subtask2", "Subtask 2 Description", epicId));
+        assertStatusIndexes(taskManager);
+        assertEquals(2, taskManager.getEpicsByStatus(Status.NEW).size());
+
+        taskManager.updateTask(new Task(taskId, null, null, Status.IN_PROGRESS));
+        taskManager.updateSubtask(new Subtask(subtask1Id, null, null, Status.DONE, null, null, epicId));
+        assertStatusIndexes(taskManager);
+        assertEquals(List.of(taskId), taskManager.getTasksByStatus(Status.IN_PROGRESS).stream().map(Task::getId).toList());
+        assertEquals(List.of(epicId), taskManager.getEpicsByStatus(Status.IN_PROGRESS).stream().map(Task::getId).toList());
+
+        taskManager.removeSubtask(subtask2Id);
+        assertStatusIndexes(taskManager);
+        assertEquals(List.of(epicId), taskManager.getEpicsByStatus(Status.DONE).stream().map(Task::getId).toList());
+        assertEquals(List.of(emptyEpicId), taskManager.getEpicsByStatusPage(Status.NEW, 0, 10).stream()
+                .map(Task::getId).toList());
+        assertTrue(taskManager.getEpicsByStatusPage(Status.NEW, emptyEpicId, 10).isEmpty());
+
+        taskManager.removeAllSubtask();
+        assertStatusIndexes(taskManager);
+        taskManager.removeTask(taskId);
+        assertStatusIndexes(taskManager);
+        taskManager.removeAllEpic();
+        taskManager.removeAllTask();
+        assertStatusIndexes(taskManager);
+        assertTrue(taskManager.getTasksByStatus(Status.DONE).isEmpty());
+    }
+
+    @Test
+    void searchTest() {
+        int reportId = taskManager.createTask(new Task("Квартальный отчёт", "Собрать цифры для отчёта"));
+        int callId = taskManager.createTask(new Task("Call supplier", "Discuss the quarterly report"));
+        int epicId = taskManager.createEpic(new Epic("Release", "Prepare release notes"));
+        int subtaskId = taskManager.createSubtask(new Subtask("Report bugs", "Triage release blockers", epicId));
+
+        assertEquals(List.of(subtaskId, callId), taskManager.search("REPORT", 10));
+        assertEquals(List.of(reportId), taskManager.search("отчёт", 10));
+        assertEquals(List.of(epicId, subtaskId, callId), taskManager.search("release, report!", 10));
+        assertEquals(List.of(epicId), taskManager.search("release report", 1));
+        assertTrue(taskManager.search("missing", 10).isEmpty());
+        assertTrue(taskManager.search("  ", 10).isEmpty());
+
+        taskManager.updateTask(new Task(callId, "Call supplier", "Discuss prices", null));
+        taskManager.updateEpic(new Epic(epicId, "Launch", null));
+        assertEquals(List.of(subtaskId, epicId), taskManager.search("report release", 10));
+        assertEquals(List.of(epicId), taskManager.search("launch", 10));
+
+        taskManager.removeSubtask(subtaskId);
+        assertTrue(taskManager.search("bugs", 10).isEmpty());
+        taskManager.removeAllEpic();
+        taskManager.removeAllTask();
+        assertTrue(taskManager.search("launch call отчёт", 10).isEmpty());
+    }
+
+    @Test
+    void eventsTest() throws InterruptedException {
+        TaskEventLog log = new TaskEventLog(100);
+        CountDownLatch release = new CountDownLatch(1);
+        TaskEventListener blocked = event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        taskManager.addEventListener(blocked);
+        taskManager.addEventListener(event -> {
+            throw new IllegalStateException("listener failure");
+        });
+        taskManager.addEventListener(log);
+
+        int taskId = taskManager.createTask(new Task("task", "desc"));
+        int epicId = taskManager.createEpic(new Epic("epic", "desc"));
+        int subtaskId = taskManager.createSubtask(new Subtask("subtask", "desc", epicId));
+        taskManager.updateSubtask(new Subtask(subtaskId, "subtask", null, Status.DONE, epicId));
+        taskManager.updateTask(new Task(taskId, "renamed", null, null));
+        taskManager.removeEpic(epicId);
+        taskManager.removeTask(taskId);
+
+        List<TaskEvent> events = new ArrayList<>();
+        while (events.size() < 10) {
+            long after = events.isEmpty() ? 0 : events.get(events.size() - 1).getSequence();
+            List<TaskEvent> polled = log.poll(after, 100, 5_000);
+            assertFalse(polled.isEmpty());
+            events.addAll(polled);
+        }
+        release.countDown();
+
+        List<String> expected = List.of(
+                "CREATED Task " + taskId, "CREATED Epic " + epicId, "CREATED Subtask " + subtaskId,
+                "EPIC_RECALCULATED Epic " + epicId, "UPDATED Subtask " + subtaskId,
+                "EPIC_RECALCULATED Epic " + epicId, "UPDATED Task " + taskId,
+                "REMOVED Subtask " + subtaskId, "REMOVED Epic " + epicId, "REMOVED Task " + taskId);
+        List<String> actual = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            TaskEvent event = events.get(i);
+            actual.add(event.getType() + " " + event.getTaskType() + " " + event.getId());
+            assertEquals(events.get(0).getSequence() + i, event.getSequence());
+        }
+        assertEquals(expected, actual);
+
+        assertEquals("task", events.get(0).getTask().getName());
+        assertEquals("renamed", events.get(6).getTask().getName());
+        assertEquals(Status.DONE, ((Epic) events.get(5).getTask()).getStatus());
+        assertEquals(0, ((Epic) events.get(5).getTask()).getSubtasksCount());
+        assertNull(events.get(9).getTask());
+
+        taskManager.removeEventListener(log);
+        taskManager.createTask(new Task("after", "desc"));
+        assertTrue(log.poll(events.get(9).getSequence(), 100, 50).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> log.poll(events.get(9).getSequence() + 1, 100, 0));
+
+        // a log subscribed after earlier changes starts from the current sequence instead of reporting a gap
+        TaskEventLog late = new TaskEventLog(100);
+        taskManager.addEventListener(late);
+        long subscribed = late.getLastSequence();
+        assertEquals(events.get(9).getSequence() + 1, subscribed);
+        int lateId = taskManager.createTask(new Task("late", "desc"));
+        List<TaskEvent> polled = late.poll(subscribed, 100, 5_000);
+        assertEquals(1, polled.size());
+        assertEquals(lateId, polled.get(0).getId());
+        assertThrows(EventsTruncatedException.class, () -> late.poll(subscribed - 1, 100, 0));
+        taskManager.removeEventListener(late);
+    }
+
+    @Test
+    void versionsTest() {
+        long tasksVersion = taskManager.getTasksVersion();
+        long historyVersion = taskManager.getHistoryVersion();
+
+        int taskId = taskManager.createTask(new Task("task", "desc"));
+        assertTrue(taskManager.getTasksVersion() > tasksVersion);
+        tasksVersion = taskManager.getTasksVersion();
+        long taskVersion = taskManager.getTask(taskId).getVersion();
+        assertTrue(taskManager.getHistoryVersion() > historyVersion);
+
+        long epicsVersion = taskManager.getEpicsVersion();
+        long subtasksVersion = taskManager.getSubtasksVersion();
+        long prioritizedVersion = taskManager.getPrioritizedTasksVersion();
+        historyVersion = taskManager.getHistoryVersion();
+        taskManager.getTasks();
+        taskManager.getPrioritizedTasks();
+        assertEquals(tasksVersion, taskManager.getTasksVersion());
+        assertEquals(prioritizedVersion, taskManager.getPrioritizedTasksVersion());
+        assertEquals(historyVersion, taskManager.getHistoryVersion());
+
+        int epicId = taskManager.createEpic(new Epic("epic", "desc"));
+        long epicVersion = taskManager.getEpic(epicId).getVersion();
+        assertTrue(taskManager.getEpicsVersion() > epicsVersion);
+        assertEquals(tasksVersion, taskManager.getTasksVersion());
+
+        taskManager.createSubtask(new Subtask("subtask", "desc", epicId));
+        assertTrue(taskManager.getSubtasksVersion() > subtasksVersion);
+        assertTrue(taskManager.getPrioritizedTasksVersion() > prioritizedVersion);
+        assertTrue(taskManager.getEpic(epicId).getVersion() > epicVersion);
+        assertEquals(taskVersion, taskManager.getTask(taskId).getVersion());
+
+        historyVersion = taskManager.getHistoryVersion();
+        taskManager.updateTask(new Task(taskId, "renamed", null, null));
+        assertTrue(taskManager.getTask(taskId).getVersion() > taskVersion);
+        assertTrue(taskManager.getTasksVersion() > tasksVersion);
+        assertTrue(taskManager.getHistoryVersion() > historyVersion);
+
+        subtasksVersion = taskManager.getSubtasksVersion();
+        taskManager.removeEpic(epicId);
+        assertTrue(taskManager.getSubtasksVersion() > subtasksVersion);
+    }
 }
@@ -0,0 +1,82 @@
+package utils.collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+
+class IntHashMapTest {
+
+    @Test
+    void matchesHashMapTest() {
+        Random random = new Random(1);
+        IntHashMap<String> map = new IntHashMap<>();
+        HashMap<Integer, String> etalon = new HashMap<>();
+
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(2_000) - 100;
+            int action = random.nextInt(3);
+            if (action == 0) {
+                assertEquals(etalon.put(key, "value " + i), map.put(key, "value " + i));
+            } else if (action == 1) {
+                assertEquals(etalon.remove(key), map.remove(key));
+            } else {
+                assertEquals(etalon.get(key), map.get(key));
+            }
+            assertEquals(etalon.size(), map.size());
+        }
+
+        assertEquals(etalon, map);
+        assertEquals(new HashSet<>(etalon.values()), new HashSet<>(map.values()));
+    }
+
+    @Test
+    void intIntMapMatchesHashMapTest() {
+        Random random = new Random(2);
+        IntIntHashMap map = new IntIntHashMap();
+        HashMap<Integer, Integer> etalon = new HashMap<>();
+
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(2_000) - 100;
+            int action = random.nextInt(3);
+            if (action == 0) {
+                etalon.put(key, i);
+                map.put(key, i);
+            } else if (action == 1) {
+                Integer removed = etalon.remove(key);
+                assertEquals(removed == null ? -1 : removed, map.remove(key, -1));
+            } else {
+                assertEquals(etalon.getOrDefault(key, -1), map.get(key, -1));
+                assertEquals(etalon.containsKey(key), map.containsKey(key));
+            }
+            assertEquals(etalon.size(), map.size());
+        }
+
+        HashMap<Integer, Integer> entries = new HashMap<>();
+        map.forEach(entries::put);
+        assertEquals(etalon, entries);
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(0));
+    }
+
+    @Test
+    void intArraySetTest() {
+        IntArraySet set = new IntArraySet();
+
+        assertTrue(set.add(5));
+        assertTrue(set.add(3));
+        assertTrue(set.add(9));
+        assertFalse(set.add(5));
+        assertTrue(set.remove(3));
+        assertFalse(set.remove(4));
+
+        assertArrayEquals(new int[]{5, 9}, set.toArray());
+        assertTrue(set.contains(9));
+        assertFalse(set.contains(3));
+    }
+}